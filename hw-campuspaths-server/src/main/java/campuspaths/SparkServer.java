@@ -13,14 +13,26 @@ package campuspaths;
 
 import campuspaths.utils.CORSFilter;
 import com.google.gson.Gson;
+import pathfinder.AsyncRouter;
 import pathfinder.CampusMap;
+import pathfinder.PathSimplifier;
+import pathfinder.RouteCache;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import spark.Spark;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class SparkServer {
 
@@ -32,6 +44,9 @@ public class SparkServer {
         // comes from a different server.
         // You should leave these two lines at the very beginning of main().
         CampusMap map = new CampusMap();
+        map.setMetricsEnabled(true);
+        RouteCache routes = new RouteCache(map, 4096, 2_000_000, map.isSymmetric());
+        AsyncRouter search = new AsyncRouter(routes, Runtime.getRuntime().availableProcessors(), 64);
 
         Spark.get("/bldnames", new Route() {
             @Override
@@ -50,11 +65,244 @@ public class SparkServer {
                 if(startBld == null || endBld == null || !map.shortNameExists(startBld) || !map.shortNameExists(endBld)) {
                     Spark.halt(400);
                 }
+                Double tolerance = tolerance(request);
+                try {
+                    Path<Point> path = search.findShortestPath(startBld, endBld, 5, TimeUnit.SECONDS).get();
+                    Gson gson = new Gson();
+                    return gson.toJson(simplify(path, tolerance));
+                } catch (ExecutionException e) {
+                    // the search queue was full or the search took too long
+                    Spark.halt(503);
+                    return null;
+                }
+            }
+        });
+
+        Spark.get("/nearest", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                double[] xy = coordinates(request, "x", "y");
+                int k = 1;
+                if (request.queryParams("k") != null) {
+                    try {
+                        k = Integer.parseInt(request.queryParams("k"));
+                    } catch (NumberFormatException e) {
+                        Spark.halt(400);
+                    }
+                    if (k < 0) {
+                        Spark.halt(400);
+                    }
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("location", map.nearestLocation(xy[0], xy[1]));
+                result.put("buildings", map.nearestBuildings(xy[0], xy[1], k));
                 Gson gson = new Gson();
-                return gson.toJson(map.findShortestPath(startBld, endBld));
+                return gson.toJson(result);
             }
         });
 
+        Spark.get("/minpathfrom", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                double[] xy = coordinates(request, "x", "y");
+                String endBld = request.queryParams("e");
+                if(endBld == null || !map.shortNameExists(endBld)) {
+                    Spark.halt(400);
+                }
+                Double tolerance = tolerance(request);
+                try {
+                    Path<Point> path = search.submit(() -> map.findShortestPathFrom(xy[0], xy[1], endBld),
+                            5, TimeUnit.SECONDS).get();
+                    Gson gson = new Gson();
+                    return gson.toJson(simplify(path, tolerance));
+                } catch (ExecutionException e) {
+                    // the search queue was full or the search took too long
+                    Spark.halt(503);
+                    return null;
+                }
+            }
+        });
+
+        Spark.get("/reachable", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startBld = request.queryParams("s");
+                String radiusParam = request.queryParams("r");
+                if(startBld == null || radiusParam == null || !map.shortNameExists(startBld)) {
+                    Spark.halt(400);
+                }
+                double radius = 0;
+                try {
+                    radius = Double.parseDouble(radiusParam);
+                } catch (NumberFormatException e) {
+                    Spark.halt(400);
+                }
+                if(!(radius >= 0)) {
+                    Spark.halt(400);
+                }
+
+                // one search gives both the points and, through them, the buildings
+                Map<Point, Double> within = map.reachableWithin(startBld, radius);
+                List<Map<String, Double>> points = new ArrayList<>();
+                for (Map.Entry<Point, Double> reached : within.entrySet()) {
+                    Map<String, Double> point = new LinkedHashMap<>();
+                    point.put("x", reached.getKey().getX());
+                    point.put("y", reached.getKey().getY());
+                    point.put("distance", reached.getValue());
+                    points.add(point);
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("buildings", map.buildingsWithin(within));
+                result.put("points", points);
+                Gson gson = new Gson();
+                return gson.toJson(result);
+            }
+        });
+
+        // Walkway changes alter every route, so they are only served when an operator token is
+        // set in the environment, and need it as "Authorization: Bearer <token>". They are a
+        // POST so that crawlers, prefetching and link previews never make them.
+        String walkwayToken = System.getenv("CAMPUSPATHS_ADMIN_TOKEN");
+        if (walkwayToken != null && !walkwayToken.isEmpty()) {
+            Spark.post("/walkway", new Route() {
+                @Override
+                public Object handle(Request request, Response response) throws Exception {
+                    if (!authorized(request, walkwayToken)) {
+                        Spark.halt(401);
+                    }
+                    // the walkway between the locations closest to (x1, y1) and (x2, y2)
+                    double[] xy1 = coordinates(request, "x1", "y1");
+                    double[] xy2 = coordinates(request, "x2", "y2");
+                    Point a = map.nearestLocation(xy1[0], xy1[1]);
+                    Point b = map.nearestLocation(xy2[0], xy2[1]);
+                    String costParam = request.queryParams("cost");
+                    if (costParam == null) {
+                        Spark.halt(400);
+                    }
+                    try {
+                        if (costParam.equals("closed")) {
+                            map.closeWalkway(a, b);
+                            routes.invalidateSegment(a, b);
+                        } else if (costParam.equals("open")) {
+                            map.reopenWalkway(a, b);
+                            routes.clear();
+                        } else {
+                            double cost = Double.parseDouble(costParam);
+                            if (map.setWalkwayCost(a, b, cost) > cost) {
+                                routes.clear();
+                            } else {
+                                routes.invalidateSegment(a, b);
+                            }
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // not a walkway, or not a valid cost
+                        Spark.halt(400);
+                    }
+                    Map<String, Object> result = new LinkedHashMap<>();
+                    result.put("start", a);
+                    result.put("end", b);
+                    result.put("closed", map.isWalkwayClosed(a, b));
+                    Gson gson = new Gson();
+                    return gson.toJson(result);
+                }
+            });
+        }
+
+        Spark.get("/searchstats", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                Map<String, Map<String, Number>> stats = new LinkedHashMap<>(map.getMetrics().summary());
+                stats.put("load", Map.of("nanos", map.getLoadNanos()));
+                Gson gson = new Gson();
+                return gson.toJson(stats);
+            }
+        });
+
+        Spark.get("/cachestats", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("size", routes.size());
+                stats.put("hits", routes.hitCount());
+                stats.put("misses", routes.missCount());
+                stats.put("hitRatio", routes.hitRatio());
+                stats.put("evictions", routes.evictionCount());
+                stats.put("loadNanos", routes.totalLoadTimeNanos());
+                Gson gson = new Gson();
+                return gson.toJson(stats);
+            }
+        });
+
+    }
+
+    /**
+     * @param request a request which may carry a token in its Authorization header
+     * @param token the token to accept
+     * @return true if the request's Authorization header is "Bearer " followed by token
+     */
+    private static boolean authorized(Request request, String token) {
+        String header = request.headers("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        // compare in time independent of where they first differ
+        return MessageDigest.isEqual(header.substring("Bearer ".length()).getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param request a request with an optional non-negative numeric query parameter tol
+     * @return the value of tol, null if it is missing, or halts with 400 if it is not a
+     * non-negative number
+     */
+    private static Double tolerance(Request request) {
+        String param = request.queryParams("tol");
+        if (param == null) {
+            return null;
+        }
+        double tolerance = -1;
+        try {
+            tolerance = Double.parseDouble(param);
+        } catch (NumberFormatException e) {
+            Spark.halt(400);
+        }
+        if (!(tolerance >= 0)) {
+            Spark.halt(400);
+        }
+        return tolerance;
+    }
+
+    /**
+     * @param path a path, or null
+     * @param tolerance the tolerance given by the request, or null if it gave none
+     * @return path simplified within tolerance, or path as it is if it or tolerance is null
+     */
+    private static Path<Point> simplify(Path<Point> path, Double tolerance) {
+        if (path == null || tolerance == null) {
+            return path;
+        }
+        return PathSimplifier.simplify(path, tolerance);
+    }
+
+    /**
+     * @param request a request with finite numeric query parameters named xParam and yParam
+     * @param xParam the name of the x coordinate's parameter
+     * @param yParam the name of the y coordinate's parameter
+     * @return the values of the two parameters, or halts with 400 if either is missing or not a
+     * finite number
+     */
+    private static double[] coordinates(Request request, String xParam, String yParam) {
+        double[] xy = new double[2];
+        try {
+            xy[0] = Double.parseDouble(request.queryParams(xParam));
+            xy[1] = Double.parseDouble(request.queryParams(yParam));
+        } catch (NullPointerException | NumberFormatException e) {
+            Spark.halt(400);
+        }
+        if (!Double.isFinite(xy[0]) || !Double.isFinite(xy[1])) {
+            Spark.halt(400);
+        }
+        return xy;
     }
 
 }
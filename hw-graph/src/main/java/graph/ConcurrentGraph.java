@@ -0,0 +1,273 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Represents a mutable multi directed graph, like Graph, that many threads may read and
+ * change at once.
+ * <p>
+ * Nodes are kept in a ConcurrentHashMap, and each node holds its outgoing edges as an
+ * immutable set which is replaced, never changed, when an edge is added or removed. So
+ * reading a node's edges takes no lock and always sees a consistent set: the edges at some
+ * moment between the start and end of the call. Changes to a node's edges are serialized by
+ * one of a fixed number of locks picked by the node's hash code, so writers to different
+ * nodes rarely wait on each other. Each change copies the node's edges, which is cheap for
+ * the small out-degrees of road and path networks.
+ * <p>
+ * Nodes cannot be removed, so an edge never refers to a node that has left the graph.
+ * <p>
+ * As a GraphView, it can be searched while it is being changed. Searches walk viewChildren,
+ * so each sees every node's edges as they were when it reached the node. freeze() gives a
+ * snapshot of the whole graph, which is kept until the next change, but with writers active
+ * that is a new copy for nearly every call, so searches do not use it.
+ */
+public class ConcurrentGraph<T, E> implements GraphView<T, E> {
+
+    private static final int STRIPES = 64;
+
+    /**
+     * Creates an empty graph.
+     * @spec.modifies this
+     */
+    public ConcurrentGraph() {
+        nodes = new ConcurrentHashMap<>();
+        locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Each node's label maps to the current set of its outgoing edges in nodes. Writers replace
+    // a node's set while holding locks[stripe(node)], and then count the change in changes.
+    // frozen caches the last snapshot made by freeze(), with the count of changes it was made at.
+    //
+    // RI: nodes != null, nodes' values != null and unmodifiable, every edge in nodes.get(n) has
+    //     source n and a destination in nodes.keySet(), locks.length == STRIPES
+    // AF(this) = Vertices (this.nodes.keySet()), Edges (the union of this.nodes.values())
+
+    private final ConcurrentHashMap<T, Vertex<T, E>> nodes;
+    private final Object[] locks;
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Snapshot<T, E> frozen;
+
+    /**
+     * Add a node to the graph.
+     * @throws RuntimeException when there exist node with the same name
+     * @param newNode a label of the new node
+     * @spec.requires newNode != null, and no dups with the existing Node label
+     * @spec.modifies this
+     * @spec.effects add a new node with label newNode to this
+     */
+    public void addNode(T newNode) {
+        if (nodes.putIfAbsent(newNode, new Vertex<>()) != null)
+            throw new RuntimeException("Duplicate node");
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Add a new edge with parent node srcNode, child node dstNode and label label
+     * @throws java.util.NoSuchElementException when no node with label srcNode or dstNode
+     * @throws RuntimeException when there exist edge with the same srcNode, dstNode, and label
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @spec.requires srcNode, dstNode, label != null
+     * @spec.modifies this
+     * @spec.effects add a new edge with a parent node label srcNode, a child node label dstNode and a label label
+     */
+    public void addEdge(T srcNode, T dstNode, E label) {
+        Vertex<T, E> parent = nodes.get(srcNode);
+        if (parent == null || !nodes.containsKey(dstNode))
+            throw new java.util.NoSuchElementException("No such node");
+
+        Graph.Edge<T, E> edge = new Graph.Edge<>(srcNode, dstNode, label);
+        synchronized (locks[stripe(srcNode)]) {
+            if (parent.edges.contains(edge))
+                throw new RuntimeException("Duplicate edge with same srcNode, dstNode and label");
+            Set<Graph.Edge<T, E>> edges = new HashSet<>(parent.edges);
+            edges.add(edge);
+            parent.edges = Collections.unmodifiableSet(edges);
+        }
+        changes.incrementAndGet();
+
+        if (Graph.DEBUG) checkRep();
+    }
+
+    /**
+     * Remove the edge with parent node srcNode, child node dstNode and label label
+     * @throws java.util.NoSuchElementException when there is no such edge
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @spec.requires srcNode, dstNode, label != null
+     * @spec.modifies this
+     * @spec.effects remove the edge with a parent node label srcNode, a child node label dstNode and a label label
+     */
+    public void removeEdge(T srcNode, T dstNode, E label) {
+        Vertex<T, E> parent = nodes.get(srcNode);
+        if (parent == null)
+            throw new java.util.NoSuchElementException("No such edge");
+
+        Graph.Edge<T, E> edge = new Graph.Edge<>(srcNode, dstNode, label);
+        synchronized (locks[stripe(srcNode)]) {
+            if (!parent.edges.contains(edge))
+                throw new java.util.NoSuchElementException("No such edge");
+            Set<Graph.Edge<T, E>> edges = new HashSet<>(parent.edges);
+            edges.remove(edge);
+            parent.edges = Collections.unmodifiableSet(edges);
+        }
+        changes.incrementAndGet();
+
+        if (Graph.DEBUG) checkRep();
+    }
+
+    /**
+     * Return a list of label of nodes in this graph. Nodes added during the call may or may not
+     * be included.
+     * @return a list of label of nodes.
+     */
+    public List<T> listNodes() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * Return whether a node with label node is present in this graph.
+     * @param node a label of the node to look up
+     * @return true if this graph contains a node labeled node, else false
+     */
+    public boolean containsNode(T node) {
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * Return the number of nodes in this graph.
+     * @return the number of nodes in this graph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Return a copy of the outgoing edges of a node.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return a set of the edges leaving the node labeled parentNode, which the caller may change
+     * @spec.requires parentNode != null
+     */
+    public Set<Graph.Edge<T, E>> listChildren(T parentNode) {
+        return new HashSet<>(viewChildren(parentNode));
+    }
+
+    /**
+     * Return the outgoing edges of a node as they were at one moment during the call, without
+     * copying them or taking a lock. Later changes to this graph do not change the result.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return an unmodifiable set of the edges leaving the node labeled parentNode
+     * @spec.requires parentNode != null
+     */
+    public Set<Graph.Edge<T, E>> viewChildren(T parentNode) {
+        Vertex<T, E> parent = nodes.get(parentNode);
+        if (parent == null)
+            throw new java.util.NoSuchElementException("No matching node");
+        return parent.edges;
+    }
+
+    /**
+     * Perform action on each outgoing edge of a node, as given by viewChildren.
+     * @param parentNode a label of parent node
+     * @param action the action to perform on each edge
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @spec.requires parentNode, action != null
+     */
+    public void forEachChild(T parentNode, Consumer<? super Graph.Edge<T, E>> action) {
+        viewChildren(parentNode).forEach(action);
+    }
+
+    /**
+     * Return an immutable compressed sparse row snapshot of this graph, reusing the last one if
+     * nothing has changed since it was made. If this graph is changed during the call, the
+     * snapshot holds each node's edges as they were at some moment during the call, leaving
+     * out edges to nodes added after the call began.
+     * @return a FrozenGraph with the nodes and edges of this graph
+     */
+    public FrozenGraph<T, E> freeze() {
+        long version = changes.get();
+        Snapshot<T, E> last = frozen;
+        if (last != null && last.version == version)
+            return last.graph;
+
+        List<T> order = listNodes();
+        Set<T> listed = new HashSet<>(order);
+        List<Set<Graph.Edge<T, E>>> children = new ArrayList<>(order.size());
+        for (T node : order) {
+            Set<Graph.Edge<T, E>> edges = nodes.get(node).edges;
+            for (Graph.Edge<T, E> edge : edges) {
+                if (!listed.contains(edge.getdstName())) {
+                    // an edge to a node added since order was listed
+                    edges = new HashSet<>(edges);
+                    edges.removeIf(e -> !listed.contains(e.getdstName()));
+                    break;
+                }
+            }
+            children.add(edges);
+        }
+        FrozenGraph<T, E> graph = new FrozenGraph<>(order, children);
+        frozen = new Snapshot<>(version, graph);
+        return graph;
+    }
+
+    /**
+     * Return false: writes would make nearly every snapshot stale, so searches walk
+     * viewChildren, which never waits for or copies more than one node's edges.
+     * @return false
+     */
+    public boolean freezeForSearch() {
+        return false;
+    }
+
+    /**
+     * @return the index of the lock guarding the edges of node
+     */
+    private static int stripe(Object node) {
+        int h = node.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    private void checkRep() {
+        // Assert this.nodes is not a null
+        assert this.nodes != null : "this.nodes is null!";
+
+        // Assert every edge leaves its own node for a node of this graph
+        for (Map.Entry<T, Vertex<T, E>> entry : nodes.entrySet()) {
+            for (Graph.Edge<T, E> edge : entry.getValue().edges) {
+                assert edge.getsrcName().equals(entry.getKey()) : "edge in the wrong node!";
+                assert nodes.containsKey(edge.getdstName()) : "edge to a missing node!";
+            }
+        }
+    }
+
+    /**
+     * Represents a snapshot made by freeze() once this graph had seen version changes.
+     */
+    private static class Snapshot<T, E> {
+        private final long version;
+        private final FrozenGraph<T, E> graph;
+
+        Snapshot(long version, FrozenGraph<T, E> graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+    }
+
+    /**
+     * Represents the current outgoing edges of one node.
+     */
+    private static class Vertex<T, E> {
+        // RI: edges != null and unmodifiable
+        private volatile Set<Graph.Edge<T, E>> edges = Set.of();
+    }
+}
@@ -0,0 +1,188 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Represents an immutable snapshot of a graph in compressed sparse row form, for searches
+ * which read a graph many times between changes. A FrozenGraph is made by GraphView.freeze().
+ * <p>
+ * Nodes are numbered 0 .. nodeCount() - 1, with the same dense indices as the Graph they were
+ * frozen from if they came from a Graph. The edges leaving node v are numbered edgeStart(v) .. edgeEnd(v) - 1, and
+ * each edge e is described by target(e), label(e) and weight(e), which read flat arrays.
+ * So visiting the children of a node allocates nothing and touches consecutive memory:
+ * <pre>
+ *     for (int e = frozen.edgeStart(v); e &lt; frozen.edgeEnd(v); e++) {
+ *         int child = frozen.target(e);
+ *         double cost = frozen.weight(e);
+ *         ...
+ *     }
+ * </pre>
+ * A FrozenGraph is never changed, so it is safe to read from many threads at once.
+ */
+public final class FrozenGraph<T, E> {
+
+    // RI: nodes, ids, offsets, targets, labels, weights != null, ids.get(nodes.get(i)) == i,
+    //     offsets.length == nodes.size() + 1, offsets[0] == 0, offsets is non-decreasing,
+    //     offsets[nodes.size()] == targets.length == labels.length == weights.length,
+    //     0 <= targets[e] < nodes.size()
+    // AF(this) = a graph with nodes nodes.get(0) .. nodes.get(nodes.size() - 1), and for each
+    //            node v and offsets[v] <= e < offsets[v + 1] an edge from nodes.get(v) to
+    //            nodes.get(targets[e]) labeled labels[e], whose label as a number is weights[e]
+
+    private final List<T> nodes;
+    private final Map<T, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final Object[] labels;
+    private final double[] weights;
+
+    /**
+     * Creates a snapshot of the nodes and edges of graph.
+     * @param nodes the labels of graph's nodes, in order of their dense indices
+     * @param children the outgoing edges of each node of nodes, in the same order
+     * @spec.requires nodes, children != null, nodes.size() == children.size(), and every edge
+     * of children ends at a node of nodes
+     */
+    FrozenGraph(List<T> nodes, List<? extends Collection<Graph.Edge<T, E>>> children) {
+        this.nodes = List.copyOf(nodes);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < this.nodes.size(); i++) {
+            ids.put(this.nodes.get(i), i);
+        }
+
+        int edgeCount = 0;
+        offsets = new int[this.nodes.size() + 1];
+        for (int v = 0; v < this.nodes.size(); v++) {
+            edgeCount += children.get(v).size();
+            offsets[v + 1] = edgeCount;
+        }
+        targets = new int[edgeCount];
+        labels = new Object[edgeCount];
+        weights = new double[edgeCount];
+        int e = 0;
+        for (Collection<Graph.Edge<T, E>> edges : children) {
+            for (Graph.Edge<T, E> edge : edges) {
+                targets[e] = ids.get(edge.getdstName());
+                labels[e] = edge.getLabel();
+                weights[e] = edge.getLabel() instanceof Number
+                        ? ((Number) edge.getLabel()).doubleValue() : Double.NaN;
+                e++;
+            }
+        }
+
+        if (Graph.DEBUG) checkRep();
+    }
+
+    /**
+     * Return the number of nodes in this FrozenGraph.
+     * @return the number of nodes in this FrozenGraph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Return the number of edges in this FrozenGraph.
+     * @return the number of edges in this FrozenGraph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Return whether a node with label node is present in this FrozenGraph.
+     * @param node a label of the node to look up
+     * @return true if this FrozenGraph contains a node labeled node, else false
+     */
+    public boolean containsNode(T node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Return the dense index of a node, which is the same as in the Graph it was frozen from.
+     * @param node a label of the node to look up
+     * @return the index of the node labeled node, or -1 if this FrozenGraph has no such node
+     */
+    public int indexOf(T node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Return the label of the node with the given dense index.
+     * @param index the index of the node
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the label of the node with the given index
+     */
+    public T nodeAt(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Return the number of the first edge leaving a node.
+     * @param index the index of the node
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the number of the first edge leaving the node with the given index
+     */
+    public int edgeStart(int index) {
+        Objects.checkIndex(index, nodes.size());
+        return offsets[index];
+    }
+
+    /**
+     * Return one more than the number of the last edge leaving a node.
+     * @param index the index of the node
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the number after the last edge leaving the node with the given index, which is
+     * edgeStart(index) if it has no edges
+     */
+    public int edgeEnd(int index) {
+        Objects.checkIndex(index, nodes.size());
+        return offsets[index + 1];
+    }
+
+    /**
+     * Return the index of the node an edge goes to.
+     * @param edge the number of the edge
+     * @throws IndexOutOfBoundsException when edge &lt; 0 or edge &gt;= edgeCount()
+     * @return the index of the child node of the given edge
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Return the label of an edge.
+     * @param edge the number of the edge
+     * @throws IndexOutOfBoundsException when edge &lt; 0 or edge &gt;= edgeCount()
+     * @return the label of the given edge
+     */
+    @SuppressWarnings("unchecked")
+    public E label(int edge) {
+        // labels only holds labels of type E, copied from the Graph
+        return (E) labels[edge];
+    }
+
+    /**
+     * Return the label of an edge as a double, without unboxing it.
+     * @param edge the number of the edge
+     * @throws IndexOutOfBoundsException when edge &lt; 0 or edge &gt;= edgeCount()
+     * @return label(edge).doubleValue() if the label is a Number, else NaN
+     */
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    private void checkRep() {
+        // Assert the arrays are not null and agree in length
+        assert nodes != null && ids != null : "nodes is null!";
+        assert offsets != null && offsets.length == nodes.size() + 1 : "offsets has the wrong length!";
+        assert offsets[nodes.size()] == targets.length : "targets has the wrong length!";
+        assert labels.length == targets.length && weights.length == targets.length : "labels have the wrong length!";
+
+        // Assert every edge ends at a node
+        for (int target : targets) {
+            assert 0 <= target && target < nodes.size() : "edge to a missing node!";
+        }
+    }
+}
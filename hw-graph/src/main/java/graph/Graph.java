@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Represents a mutable multi directed graph consisting of a finite set of vertices
@@ -9,7 +10,7 @@ import java.util.*;
  * parent and child nodes have the same edge label. However, multiple edges
  * may have the same label.
  */
-public class Graph<T, E> {
+public class Graph<T, E> implements GraphView<T, E> {
     public static final boolean DEBUG = false;
 
     /**
@@ -18,14 +19,23 @@ public class Graph<T, E> {
      */
     public Graph(){
         nodes = new HashMap<>();
+        order = new ArrayList<>();
     }
 
     // Nodes are stored in a HashMap nodes, and each outgoing Edges are stored in the parent Node.
+    // Node labels are also listed in order, in the order they were added, so that each node
+    // has a dense index which is its position in order.
     //
-    // RI: nodes != null, nodes' elements != null
+    // frozen caches the snapshot returned by freeze(), and is cleared by every change.
+    //
+    // RI: nodes != null, nodes' elements != null, order != null,
+    //     order.size() == nodes.size(), nodes.get(order.get(i)).index == i,
+    //     frozen == null or frozen has the same nodes and edges as this
     // AF(this) = Vertices (this.nodes.keySet()), Edges (for all value n in this.nodes, n.edges)
 
     private HashMap<T, Node<T>> nodes;
+    private ArrayList<T> order;
+    private volatile FrozenGraph<T, E> frozen;
 
     /**
      * Add a node to the graph.
@@ -40,7 +50,11 @@ public class Graph<T, E> {
 
         if (nodes.get(newNode) != null)
             throw new RuntimeException("Duplicate node");
-        this.nodes.put(newNode, new Node<T>(newNode));
+        Node<T> node = new Node<T>(newNode);
+        node.index = order.size();
+        this.nodes.put(newNode, node);
+        this.order.add(newNode);
+        this.frozen = null;
 
         if (DEBUG) checkRep();
     }
@@ -69,6 +83,28 @@ public class Graph<T, E> {
         if (!isAdded){
             throw new RuntimeException("Duplicate edge with same srcNode, dstNode and label");
         }
+        this.frozen = null;
+
+        if (DEBUG) checkRep();
+    }
+
+    /**
+     * Remove the edge with parent node srcNode, child node dstNode and label label
+     * @throws java.util.NoSuchElementException when there is no such edge
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @spec.requires srcNode, dstNode, label != null
+     * @spec.modifies this
+     * @spec.effects remove the edge with a parent node label srcNode, a child node label dstNode and a label label
+     */
+    public void removeEdge(T srcNode, T dstNode, E label){
+        if (DEBUG) checkRep();
+
+        Node<T> parent = this.nodes.get(srcNode);
+        if (parent == null || !parent.removeEdge(srcNode, dstNode, label))
+            throw new java.util.NoSuchElementException("No such edge");
+        this.frozen = null;
 
         if (DEBUG) checkRep();
     }
@@ -86,6 +122,48 @@ public class Graph<T, E> {
         return ret;
     }
 
+    /**
+     * Return whether a node with label node is present in this Graph.
+     * @param node a label of the node to look up
+     * @return true if this Graph contains a node labeled node, else false
+     */
+    public boolean containsNode(T node){
+        if (DEBUG) checkRep();
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * Return the number of nodes in this Graph.
+     * @return the number of nodes in this Graph
+     */
+    public int nodeCount(){
+        if (DEBUG) checkRep();
+        return order.size();
+    }
+
+    /**
+     * Return the dense index of a node: nodes are numbered 0, 1, 2, ... in the order they
+     * were added, so searches can keep per-node data in arrays instead of maps.
+     * @param node a label of the node to look up
+     * @return the index of the node labeled node, or -1 if this Graph has no such node
+     */
+    public int indexOf(T node){
+        if (DEBUG) checkRep();
+        Node<T> n = nodes.get(node);
+        return n == null ? -1 : n.index;
+    }
+
+    /**
+     * Return the label of the node with the given dense index.
+     * @param index the index of the node, as returned by indexOf
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the label of the node with the given index
+     */
+    public T nodeAt(int index){
+        if (DEBUG) checkRep();
+        return order.get(index);
+    }
+
     /**
      * Return a set of edge which consists of each node's label and edge label
      * @param parentNode a label of parent node
@@ -106,6 +184,69 @@ public class Graph<T, E> {
         return ret;
     }
 
+    /**
+     * Return a read-only view of the outgoing edges of a node, without copying them as
+     * listChildren does. The view shows later changes to this Graph, and must not be iterated
+     * while this Graph is being changed.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return an unmodifiable set of the edges leaving the node labeled parentNode
+     * @spec.requires parentNode != null
+     */
+    public Set<Edge<T, E>> viewChildren(T parentNode){
+        if (DEBUG) checkRep();
+
+        Node<T> parent = this.nodes.get(parentNode);
+        if (parent == null){
+            throw new java.util.NoSuchElementException("No matching node");
+        }
+        return parent.view;
+    }
+
+    /**
+     * Perform action on each outgoing edge of a node, without copying the edges.
+     * @param parentNode a label of parent node
+     * @param action the action to perform on each edge
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @spec.requires parentNode, action != null, and action does not change this Graph
+     */
+    public void forEachChild(T parentNode, Consumer<? super Edge<T, E>> action){
+        viewChildren(parentNode).forEach(action);
+    }
+
+    /**
+     * Return an immutable compressed sparse row snapshot of this Graph, whose node indices are
+     * the same as this Graph's. The snapshot is built on the first call after a change, and
+     * later calls return the same snapshot until this Graph is changed again, so callers
+     * which only read this Graph can freeze it once per use. Calling this from several threads
+     * is safe while no thread changes this Graph.
+     * @return a FrozenGraph with the same nodes and edges as this Graph
+     */
+    public FrozenGraph<T, E> freeze(){
+        if (DEBUG) checkRep();
+
+        FrozenGraph<T, E> ret = frozen;
+        if (ret == null) {
+            List<Set<Edge<T, E>>> children = new ArrayList<>(order.size());
+            for (T node : order) {
+                children.add(nodes.get(node).edges);
+            }
+            ret = new FrozenGraph<>(order, children);
+            frozen = ret;
+        }
+
+        if (DEBUG) checkRep();
+        return ret;
+    }
+
+    /**
+     * Return true: a Graph keeps its snapshot until it is changed, and is not changed while
+     * it is searched, so searches read the snapshot.
+     * @return true
+     */
+    public boolean freezeForSearch(){
+        return true;
+    }
 
     private void checkRep() {
         // Assert this.nodes is not a null
@@ -115,6 +256,12 @@ public class Graph<T, E> {
         for (Map.Entry<T, Node<T>> set : this.nodes.entrySet()) {
             assert set != null : "this.nodes has a null element!";
         }
+
+        // Assert every node's index is its position in this.order
+        assert this.order != null && this.order.size() == this.nodes.size() : "this.order is inconsistent!";
+        for (int i = 0; i < this.order.size(); i++) {
+            assert this.nodes.get(this.order.get(i)).index == i : "node index is inconsistent!";
+        }
     }
 
     /**
@@ -131,14 +278,18 @@ public class Graph<T, E> {
         public Node(T name) {
             this.name = name;
             this.edges = new HashSet<>();
+            this.view = Collections.unmodifiableSet(edges);
         }
 
-        // The label of this Node is a name. Edges are stored in a HashSet edges,
+        // The label of this Node is a name. Edges are stored in a HashSet edges, view is a
+        // read-only view of edges, and index is the dense index the enclosing Graph gave this Node.
         //
-        // RI: name != null, edges != null
+        // RI: name != null, edges != null, view is an unmodifiable view of edges
         // AF(this) = A node labeled name with outgoing edges in edges
         private T name;
         private HashSet<Edge<T, E>> edges;
+        private Set<Edge<T, E>> view;
+        private int index;
 
         /**
          * return a set of outgoing edges from this.
@@ -173,6 +324,25 @@ public class Graph<T, E> {
             return isAdded;
         }
 
+        /**
+         * Remove the edge from this to a node label dstNode with a label label
+         * @param srcName label of a node from which the edge to dstNode
+         * @param dstName label of a node to which the edge from srcNode
+         * @param label label of the edge.
+         * @return true if the edge was present, else false
+         * @spec.modifies this
+         * @spec.requires dstName, label != null
+         * @spec.effects remove the edge from this to a node label dstNode with a label label.
+         */
+        public boolean removeEdge(T srcName, T dstName, E label) {
+            if (DEBUG) checkRep();
+
+            boolean isRemoved = edges.remove(new Edge<T, E>(srcName, dstName, label));
+
+            if (DEBUG) checkRep();
+            return isRemoved;
+        }
+
         private void checkRep(){
             // Assert this.name is not a null
             assert this.name != null : "this.name is null!";
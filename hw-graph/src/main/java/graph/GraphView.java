@@ -0,0 +1,70 @@
+package graph;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents read access to a multi directed graph, whatever holds it: a Graph, a
+ * ConcurrentGraph that other threads are changing, or one version of a PersistentGraph.
+ * Searches which only read a graph take a GraphView, so they run on any of these.
+ */
+public interface GraphView<T, E> {
+
+    /**
+     * Return whether a node with label node is present in this graph.
+     * @param node a label of the node to look up
+     * @return true if this graph contains a node labeled node, else false
+     */
+    boolean containsNode(T node);
+
+    /**
+     * Return the number of nodes in this graph.
+     * @return the number of nodes in this graph
+     */
+    int nodeCount();
+
+    /**
+     * Return a list of label of nodes in this graph.
+     * @return a list of label of nodes.
+     */
+    List<T> listNodes();
+
+    /**
+     * Return a read-only set of the outgoing edges of a node, without copying them.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return an unmodifiable set of the edges leaving the node labeled parentNode
+     * @spec.requires parentNode != null
+     */
+    Set<Graph.Edge<T, E>> viewChildren(T parentNode);
+
+    /**
+     * Perform action on each outgoing edge of a node, without copying the edges.
+     * @param parentNode a label of parent node
+     * @param action the action to perform on each edge
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @spec.requires parentNode, action != null, and action does not change this graph
+     */
+    default void forEachChild(T parentNode, Consumer<? super Graph.Edge<T, E>> action) {
+        viewChildren(parentNode).forEach(action);
+    }
+
+    /**
+     * Return whether searches should read this graph through freeze() rather than through
+     * viewChildren. Freezing pays off when one snapshot serves many searches, as for a Graph
+     * between changes. A graph which is changed while it is searched, or whose versions are
+     * each searched only a few times, is better walked where it is.
+     * @return true if searches should read this graph's snapshot, false by default
+     */
+    default boolean freezeForSearch() {
+        return false;
+    }
+
+    /**
+     * Return an immutable compressed sparse row snapshot of this graph. Implementations keep
+     * the snapshot until the graph changes, so searches can freeze the graph once per use.
+     * @return a FrozenGraph with the same nodes and edges as this graph
+     */
+    FrozenGraph<T, E> freeze();
+}
@@ -0,0 +1,422 @@
+package graph;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents an immutable map as a hash array mapped trie. Each level of the trie uses 5 more
+ * bits of a key's hash to pick one of up to 32 children, and stores only the children which
+ * are present, packed in an array and found through a 32-bit bitmap. Keys whose hashes are
+ * equal in all 32 bits share a collision node at the bottom.
+ * <p>
+ * put and remove return a new map which shares every node of this map except the O(log n)
+ * nodes on the path to the changed key, so old versions stay valid and cost little to keep.
+ */
+final class Hamt<K, V> {
+
+    // RI: root != null, size == the number of entries reachable from root, no two entries have
+    //     equal keys, every entry is on the path given by its hash, no bitmap node other than
+    //     root is empty or holds just one entry
+    // AF(this) = the map from each entry's key to its value
+
+    private static final Hamt<?, ?> EMPTY = new Hamt<>(new Bitmap(0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    private Hamt(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> Hamt<K, V> empty() {
+        return (Hamt<K, V>) EMPTY;
+    }
+
+    /**
+     * @return the number of keys in this map
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the value of key, or null if this map has no such key
+     * @spec.requires key != null
+     */
+    @SuppressWarnings("unchecked")
+    V get(Object key) {
+        return (V) root.find(hash(key), 0, key);
+    }
+
+    /**
+     * @param key the key to look up
+     * @return true if this map has key
+     * @spec.requires key != null
+     */
+    boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key the key to add or replace
+     * @param value its new value
+     * @return a map like this one except that key maps to value, which is this map if key
+     * already maps to an equal value
+     * @spec.requires key, value != null
+     */
+    Hamt<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(hash(key), 0, key, value, added);
+        return newRoot == root ? this : new Hamt<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param key the key to remove
+     * @return a map like this one without key, which is this map if it has no such key
+     * @spec.requires key != null
+     */
+    Hamt<K, V> remove(Object key) {
+        Node newRoot = root.remove(hash(key), 0, key);
+        if (newRoot == root) return this;
+        return newRoot == null ? empty() : new Hamt<>(newRoot, size - 1);
+    }
+
+    /**
+     * Performs action on each key and value of this map.
+     * @param action the action to perform
+     * @spec.requires action != null
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((k, v) -> action.accept((K) k, (V) v));
+    }
+
+    /**
+     * @return an iterator over the keys of this map, in the order forEach visits them, which
+     * does not support remove
+     */
+    Iterator<K> keys() {
+        return new Keys();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the 5 bits of hash used at the level whose first bit is shift
+     */
+    private static int fragment(int hash, int shift) {
+        return (hash >>> shift) & 31;
+    }
+
+    /**
+     * @return a node holding a and b, which have hashes ha and hb and sit at level shift
+     * @spec.requires a, b are Entry or Collision, and if ha == hb both are entries
+     */
+    private static Node pair(int shift, Object a, int ha, Object b, int hb) {
+        if (ha == hb) {
+            return new Collision(ha, new Entry[] {(Entry) a, (Entry) b});
+        }
+        int fa = fragment(ha, shift);
+        int fb = fragment(hb, shift);
+        if (fa == fb) {
+            return new Bitmap(1 << fa, new Object[] {pair(shift + 5, a, ha, b, hb)});
+        }
+        return fa < fb ? new Bitmap((1 << fa) | (1 << fb), new Object[] {a, b})
+                       : new Bitmap((1 << fa) | (1 << fb), new Object[] {b, a});
+    }
+
+    /**
+     * Represents a walk over the keys of this map, depth first like forEach.
+     */
+    private final class Keys implements Iterator<K> {
+        // slots[0..depth-1] are the children of the nodes on the path from the root to the
+        // current node, and next[i] is the position in slots[i] of the next child to visit.
+        // A path has at most 7 bitmap nodes, for the 32 bits of a hash, and a collision node.
+        private final Object[][] slots = new Object[8][];
+        private final int[] next = new int[8];
+        private int depth;
+        private Object pending;     // the next key, or null when there are none left
+
+        Keys() {
+            push(root);
+            advance();
+        }
+
+        private void push(Node node) {
+            slots[depth] = node instanceof Bitmap ? ((Bitmap) node).slots : ((Collision) node).entries;
+            next[depth] = 0;
+            depth++;
+        }
+
+        /**
+         * Sets pending to the key of the next entry on the walk.
+         */
+        private void advance() {
+            while (depth > 0) {
+                Object[] top = slots[depth - 1];
+                if (next[depth - 1] == top.length) {
+                    depth--;
+                    continue;
+                }
+                Object slot = top[next[depth - 1]++];
+                if (slot instanceof Entry) {
+                    pending = ((Entry) slot).key;
+                    return;
+                }
+                push((Node) slot);
+            }
+            pending = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K next() {
+            if (pending == null)
+                throw new NoSuchElementException();
+            K key = (K) pending;
+            advance();
+            return key;
+        }
+    }
+
+    /**
+     * Represents an immutable key and value with the key's hash.
+     */
+    private static final class Entry {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Entry(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Represents an immutable subtree of the trie.
+     */
+    private abstract static class Node {
+        /**
+         * @return the value of key in this subtree, or null
+         */
+        abstract Object find(int hash, int shift, Object key);
+
+        /**
+         * @return this subtree with key mapped to value, or this if it already was, setting
+         * added[0] if key was not present
+         */
+        abstract Node put(int hash, int shift, Object key, Object value, boolean[] added);
+
+        /**
+         * @return this subtree without key, this if it has no such key, or null if it would be
+         * empty
+         */
+        abstract Node remove(int hash, int shift, Object key);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Represents a trie node whose present children, entries or subtrees, are packed in slots
+     * in order of their hash fragment, with bit f of bitmap set when fragment f is present.
+     */
+    private static final class Bitmap extends Node {
+        final int bitmap;
+        final Object[] slots;
+
+        Bitmap(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        /**
+         * @return the position in slots of the child for bit
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int hash, int shift, Object key) {
+            int bit = 1 << fragment(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            Object slot = slots[index(bit)];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.hash == hash && entry.key.equals(key) ? entry.value : null;
+            }
+            return ((Node) slot).find(hash, shift + 5, key);
+        }
+
+        @Override
+        Node put(int hash, int shift, Object key, Object value, boolean[] added) {
+            int bit = 1 << fragment(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, i);
+                copy[i] = new Entry(hash, key, value);
+                System.arraycopy(slots, i, copy, i + 1, slots.length - i);
+                return new Bitmap(bitmap | bit, copy);
+            }
+
+            Object slot = slots[i];
+            Object replacement;
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                if (entry.hash == hash && entry.key.equals(key)) {
+                    if (Objects.equals(entry.value, value)) return this;
+                    replacement = new Entry(hash, key, value);
+                } else {
+                    added[0] = true;
+                    replacement = pair(shift + 5, entry, entry.hash, new Entry(hash, key, value), hash);
+                }
+            } else {
+                Node child = (Node) slot;
+                replacement = child.put(hash, shift + 5, key, value, added);
+                if (replacement == child) return this;
+            }
+            Object[] copy = slots.clone();
+            copy[i] = replacement;
+            return new Bitmap(bitmap, copy);
+        }
+
+        @Override
+        Node remove(int hash, int shift, Object key) {
+            int bit = 1 << fragment(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int i = index(bit);
+            Object slot = slots[i];
+
+            Object replacement;
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                if (entry.hash != hash || !entry.key.equals(key)) return this;
+                replacement = null;
+            } else {
+                Node child = (Node) slot;
+                Node removed = child.remove(hash, shift + 5, key);
+                if (removed == child) return this;
+                replacement = removed;
+                // a subtree left holding one entry is replaced by that entry
+                if (removed instanceof Bitmap && ((Bitmap) removed).slots.length == 1
+                        && ((Bitmap) removed).slots[0] instanceof Entry) {
+                    replacement = ((Bitmap) removed).slots[0];
+                }
+            }
+
+            if (replacement != null) {
+                Object[] copy = slots.clone();
+                copy[i] = replacement;
+                return new Bitmap(bitmap, copy);
+            }
+            if (slots.length == 1) return null;
+            Object[] copy = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, copy, 0, i);
+            System.arraycopy(slots, i + 1, copy, i, slots.length - i - 1);
+            return new Bitmap(bitmap & ~bit, copy);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Object slot : slots) {
+                if (slot instanceof Entry) {
+                    action.accept(((Entry) slot).key, ((Entry) slot).value);
+                } else {
+                    ((Node) slot).forEach(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Represents the entries, at least 2, whose keys have the same full hash.
+     */
+    private static final class Collision extends Node {
+        final int hash;
+        final Entry[] entries;
+
+        Collision(int hash, Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        /**
+         * @return the position of key in entries, or -1
+         */
+        private int indexOf(Object key) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int hash, int shift, Object key) {
+            if (hash != this.hash) return null;
+            int i = indexOf(key);
+            return i < 0 ? null : entries[i].value;
+        }
+
+        @Override
+        Node put(int hash, int shift, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                added[0] = true;
+                return pair(shift, this, this.hash, new Entry(hash, key, value), hash);
+            }
+            int i = indexOf(key);
+            Entry[] copy;
+            if (i < 0) {
+                added[0] = true;
+                copy = java.util.Arrays.copyOf(entries, entries.length + 1);
+                copy[entries.length] = new Entry(hash, key, value);
+            } else {
+                if (Objects.equals(entries[i].value, value)) return this;
+                copy = entries.clone();
+                copy[i] = new Entry(hash, key, value);
+            }
+            return new Collision(hash, copy);
+        }
+
+        @Override
+        Node remove(int hash, int shift, Object key) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) return this;
+            if (entries.length == 2) {
+                // the remaining entry goes back into a bitmap node, which the parent unwraps
+                Entry other = entries[1 - i];
+                return new Bitmap(1 << fragment(other.hash, shift), new Object[] {other});
+            }
+            Entry[] copy = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, copy, 0, i);
+            System.arraycopy(entries, i + 1, copy, i, entries.length - i - 1);
+            return new Collision(hash, copy);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Entry entry : entries) {
+                action.accept(entry.key, entry.value);
+            }
+        }
+    }
+}
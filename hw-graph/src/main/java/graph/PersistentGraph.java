@@ -0,0 +1,325 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Represents an immutable multi directed graph. Like Graph, it cannot contain duplicate vertex
+ * names, and no 2 edges with the same parent and child nodes have the same label.
+ * <p>
+ * addNode, addEdge and removeEdge leave this graph as it is and return a new version with the
+ * change. Nodes and each node's edges are kept in hash array mapped tries, so a new version
+ * copies only the few trie nodes on the path to what changed and shares everything else with
+ * the version it came from. Each version is a consistent snapshot that may be searched by any
+ * number of threads without locks while an updater builds later versions, and going back to
+ * an earlier version is just keeping a reference to it. An updater can apply a batch of
+ * changes and then publish the result at once, for example
+ * <pre>
+ *     PersistentGraph&lt;T, E&gt; next = current.get();
+ *     for (Change c : batch) next = next.addEdge(c.src, c.dst, c.label);
+ *     current.set(next);     // readers of the old version are not affected
+ * </pre>
+ * where current is an AtomicReference or volatile field that readers load once per search.
+ * <p>
+ * As a GraphView, each version can be searched directly. Searches walk viewChildren, which
+ * reads a node's edges out of the trie without copying them, so searching a new version costs
+ * only what the search explores rather than a copy of the graph. freeze() builds a version's
+ * whole snapshot once, for callers which want one.
+ */
+public final class PersistentGraph<T, E> implements GraphView<T, E> {
+
+    /**
+     * Creates an empty graph.
+     */
+    public PersistentGraph() {
+        this(Hamt.empty(), 0);
+    }
+
+    /**
+     * Creates a graph with the same nodes and edges as graph.
+     * @param graph the graph to copy
+     * @spec.requires graph != null, and graph is not changed during the call
+     */
+    public PersistentGraph(GraphView<T, E> graph) {
+        Hamt<T, Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>>> copy = Hamt.empty();
+        int edges = 0;
+        for (T node : graph.listNodes()) {
+            Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children = Hamt.empty();
+            for (Graph.Edge<T, E> edge : graph.viewChildren(node)) {
+                children = children.put(edge, edge);
+            }
+            copy = copy.put(node, children);
+            edges += children.size();
+        }
+        this.nodes = copy;
+        this.edgeCount = edges;
+        if (Graph.DEBUG) checkRep();
+    }
+
+    private PersistentGraph(Hamt<T, Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>>> nodes, int edgeCount) {
+        this.nodes = nodes;
+        this.edgeCount = edgeCount;
+    }
+
+    // Each node's label maps to the set of its outgoing edges in nodes, with each edge mapped
+    // to itself. frozen is the snapshot made by the first call to freeze(), or null before it.
+    //
+    // RI: nodes != null, nodes' values != null, every edge in nodes.get(n) maps to itself, has
+    //     source n and a destination in nodes, edgeCount == the sum of the sizes of nodes' values
+    // AF(this) = Vertices (the keys of this.nodes), Edges (the union of the keys of this.nodes' values)
+
+    private final Hamt<T, Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>>> nodes;
+    private final int edgeCount;
+    private volatile FrozenGraph<T, E> frozen;
+
+    /**
+     * Return this graph with one more node.
+     * @throws RuntimeException when there exist node with the same name
+     * @param newNode a label of the new node
+     * @return a graph like this one plus a node labeled newNode
+     * @spec.requires newNode != null, and no dups with the existing Node label
+     */
+    public PersistentGraph<T, E> addNode(T newNode) {
+        if (nodes.containsKey(newNode))
+            throw new RuntimeException("Duplicate node");
+        return new PersistentGraph<>(nodes.put(newNode, Hamt.empty()), edgeCount);
+    }
+
+    /**
+     * Return this graph with one more edge.
+     * @throws java.util.NoSuchElementException when no node with label srcNode or dstNode
+     * @throws RuntimeException when there exist edge with the same srcNode, dstNode, and label
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @return a graph like this one plus an edge with a parent node label srcNode, a child
+     * node label dstNode and a label label
+     * @spec.requires srcNode, dstNode, label != null
+     */
+    public PersistentGraph<T, E> addEdge(T srcNode, T dstNode, E label) {
+        Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children = nodes.get(srcNode);
+        if (children == null || !nodes.containsKey(dstNode))
+            throw new java.util.NoSuchElementException("No such node");
+
+        Graph.Edge<T, E> edge = new Graph.Edge<>(srcNode, dstNode, label);
+        if (children.containsKey(edge))
+            throw new RuntimeException("Duplicate edge with same srcNode, dstNode and label");
+        PersistentGraph<T, E> result =
+                new PersistentGraph<>(nodes.put(srcNode, children.put(edge, edge)), edgeCount + 1);
+
+        if (Graph.DEBUG) result.checkRep();
+        return result;
+    }
+
+    /**
+     * Return this graph with one edge fewer.
+     * @throws java.util.NoSuchElementException when there is no such edge
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @return a graph like this one without the edge with a parent node label srcNode, a
+     * child node label dstNode and a label label
+     * @spec.requires srcNode, dstNode, label != null
+     */
+    public PersistentGraph<T, E> removeEdge(T srcNode, T dstNode, E label) {
+        Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children = nodes.get(srcNode);
+        Graph.Edge<T, E> edge = new Graph.Edge<>(srcNode, dstNode, label);
+        if (children == null || !children.containsKey(edge))
+            throw new java.util.NoSuchElementException("No such edge");
+        PersistentGraph<T, E> result =
+                new PersistentGraph<>(nodes.put(srcNode, children.remove(edge)), edgeCount - 1);
+
+        if (Graph.DEBUG) result.checkRep();
+        return result;
+    }
+
+    /**
+     * Return a list of label of nodes in this graph.
+     * @return a list of label of nodes.
+     */
+    public List<T> listNodes() {
+        List<T> result = new ArrayList<>(nodes.size());
+        nodes.forEach((node, children) -> result.add(node));
+        return result;
+    }
+
+    /**
+     * Return whether a node with label node is present in this graph.
+     * @param node a label of the node to look up
+     * @return true if this graph contains a node labeled node, else false
+     */
+    public boolean containsNode(T node) {
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * Return whether this graph has an edge.
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param label label of the edge.
+     * @return true if this graph has an edge from srcNode to dstNode labeled label, else false
+     * @spec.requires srcNode, dstNode, label != null
+     */
+    public boolean containsEdge(T srcNode, T dstNode, E label) {
+        Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children = nodes.get(srcNode);
+        return children != null && children.containsKey(new Graph.Edge<>(srcNode, dstNode, label));
+    }
+
+    /**
+     * Return the number of nodes in this graph.
+     * @return the number of nodes in this graph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Return the number of edges in this graph.
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Return the number of edges leaving a node.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return the number of edges leaving the node labeled parentNode
+     * @spec.requires parentNode != null
+     */
+    public int childCount(T parentNode) {
+        return children(parentNode).size();
+    }
+
+    /**
+     * Return a copy of the outgoing edges of a node.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return a set of the edges leaving the node labeled parentNode, which the caller may change
+     * @spec.requires parentNode != null
+     */
+    public Set<Graph.Edge<T, E>> listChildren(T parentNode) {
+        Set<Graph.Edge<T, E>> result = new HashSet<>();
+        forEachChild(parentNode, result::add);
+        return result;
+    }
+
+    /**
+     * Return a read-only set of the outgoing edges of a node, without copying them.
+     * @param parentNode a label of parent node
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @return an unmodifiable set of the edges leaving the node labeled parentNode
+     * @spec.requires parentNode != null
+     */
+    public Set<Graph.Edge<T, E>> viewChildren(T parentNode) {
+        return new EdgeSet<>(children(parentNode));
+    }
+
+    /**
+     * Perform action on each outgoing edge of a node, without copying them.
+     * @param parentNode a label of parent node
+     * @param action the action to perform on each edge
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     * @spec.requires parentNode, action != null
+     */
+    public void forEachChild(T parentNode, Consumer<? super Graph.Edge<T, E>> action) {
+        children(parentNode).forEach((edge, self) -> action.accept(edge));
+    }
+
+    /**
+     * Return an immutable compressed sparse row snapshot of this version. It is built by the
+     * first call and kept, since this version never changes.
+     * @return a FrozenGraph with the same nodes and edges as this graph
+     */
+    public FrozenGraph<T, E> freeze() {
+        FrozenGraph<T, E> result = frozen;
+        if (result == null) {
+            List<T> order = listNodes();
+            List<Set<Graph.Edge<T, E>>> children = new ArrayList<>(order.size());
+            for (T node : order) {
+                children.add(viewChildren(node));
+            }
+            result = new FrozenGraph<>(order, children);
+            frozen = result;
+        }
+        return result;
+    }
+
+    /**
+     * Return false: each version is usually searched only a few times before the next, so
+     * searches walk its tries through viewChildren instead of freezing it.
+     * @return false
+     */
+    public boolean freezeForSearch() {
+        return false;
+    }
+
+    /**
+     * Return a mutable Graph with the same nodes and edges as this graph. Searches do not
+     * need one, since they take this graph as a GraphView.
+     * @return a new Graph equal to this version
+     */
+    public Graph<T, E> toGraph() {
+        Graph<T, E> result = new Graph<>();
+        nodes.forEach((node, children) -> result.addNode(node));
+        nodes.forEach((node, children) -> children.forEach(
+                (edge, self) -> result.addEdge(edge.getsrcName(), edge.getdstName(), edge.getLabel())));
+        return result;
+    }
+
+    /**
+     * @return the edges of parentNode
+     * @throws java.util.NoSuchElementException when no node with a label parentNode
+     */
+    private Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children(T parentNode) {
+        Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> children = nodes.get(parentNode);
+        if (children == null)
+            throw new java.util.NoSuchElementException("No matching node");
+        return children;
+    }
+
+    /**
+     * Represents the edges of one node, read from its trie.
+     */
+    private static final class EdgeSet<T, E> extends AbstractSet<Graph.Edge<T, E>> {
+        private final Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> edges;
+
+        EdgeSet(Hamt<Graph.Edge<T, E>, Graph.Edge<T, E>> edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public int size() {
+            return edges.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && edges.containsKey(o);
+        }
+
+        @Override
+        public Iterator<Graph.Edge<T, E>> iterator() {
+            return edges.keys();
+        }
+    }
+
+    private void checkRep() {
+        // Assert this.nodes is not a null
+        assert this.nodes != null : "this.nodes is null!";
+
+        // Assert every edge leaves its own node for a node of this graph, and the edges add up
+        int[] edges = new int[1];
+        nodes.forEach((node, children) -> {
+            assert children != null : "missing edge set!";
+            children.forEach((edge, self) -> {
+                assert edge.equals(self) : "edge maps to another edge!";
+                assert edge.getsrcName().equals(node) : "edge in the wrong node!";
+                assert nodes.containsKey(edge.getdstName()) : "edge to a missing node!";
+            });
+            edges[0] += children.size();
+        });
+        assert edges[0] == edgeCount : "edgeCount is wrong!";
+    }
+}
@@ -0,0 +1,327 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Represents a mutable multi directed graph whose edge labels are primitive double weights.
+ * Like Graph, it cannot contain duplicate vertex names, and no 2 edges with the same parent
+ * and child nodes have the same weight.
+ * <p>
+ * Nodes are numbered 0, 1, 2, ... in the order they were added, and each node keeps its
+ * outgoing edges as a pair of parallel arrays of child indices and weights rather than as
+ * Edge objects holding boxed labels. The children of a node can be read by position,
+ * <pre>
+ *     for (int i = 0; i &lt; g.childCount(v); i++) {
+ *         int child = g.childAt(v, i);
+ *         double weight = g.weightAt(v, i);
+ *         ...
+ *     }
+ * </pre>
+ * or with forEachChild, and neither boxes a weight or allocates.
+ */
+public class WeightedGraph<T> {
+
+    /**
+     * Represents an action taken for each outgoing edge of a node.
+     */
+    @FunctionalInterface
+    public interface EdgeVisitor {
+        /**
+         * Visits one edge.
+         * @param child the index of the node the edge goes to
+         * @param weight the weight of the edge
+         */
+        void visit(int child, double weight);
+    }
+
+    /**
+     * Creates an empty graph.
+     * @spec.modifies this
+     */
+    public WeightedGraph() {
+        ids = new HashMap<>();
+        nodes = new ArrayList<>();
+        children = new int[16][];
+        weights = new double[16][];
+        degree = new int[16];
+        edgeCount = 0;
+    }
+
+    /**
+     * Creates a graph with the same nodes and edges as graph. A graph which is searched frozen
+     * (see GraphView.freezeForSearch), such as a Graph, is copied from its snapshot and keeps
+     * its node indices; any other graph is read through viewChildren, numbering its nodes in
+     * the order of listNodes.
+     * @param graph the graph to copy
+     * @spec.requires graph != null, and graph is not changed during the call
+     * @spec.effects this has a node for each node of graph, and an edge of weight w for each
+     * edge of graph labeled w
+     */
+    public WeightedGraph(GraphView<T, Double> graph) {
+        this();
+        if (graph.freezeForSearch()) {
+            FrozenGraph<T, Double> frozen = graph.freeze();
+            for (int i = 0; i < frozen.nodeCount(); i++) {
+                addNode(frozen.nodeAt(i));
+            }
+            for (int i = 0; i < frozen.nodeCount(); i++) {
+                for (int e = frozen.edgeStart(i); e < frozen.edgeEnd(i); e++) {
+                    append(i, frozen.target(e), frozen.weight(e));
+                }
+            }
+        } else {
+            List<T> order = graph.listNodes();
+            for (T node : order) {
+                addNode(node);
+            }
+            for (int i = 0; i < order.size(); i++) {
+                for (Graph.Edge<T, Double> edge : graph.viewChildren(order.get(i))) {
+                    append(i, ids.get(edge.getdstName()), edge.getLabel());
+                }
+            }
+        }
+        if (Graph.DEBUG) checkRep();
+    }
+
+    // Node labels are listed in nodes in the order they were added, and ids maps each label to
+    // its position. The edges leaving node v go to children[v][0 .. degree[v] - 1] with weights
+    // weights[v][0 .. degree[v] - 1].
+    //
+    // RI: ids, nodes, children, weights, degree != null, ids.get(nodes.get(i)) == i,
+    //     children, weights, degree have length >= nodes.size(),
+    //     children[v].length == weights[v].length >= degree[v] for v < nodes.size(),
+    //     0 <= children[v][i] < nodes.size(), no two edges of v have the same child and weight,
+    //     edgeCount == sum of degree[v]
+    // AF(this) = Vertices (nodes), Edges (for each v and i < degree[v], an edge from
+    //            nodes.get(v) to nodes.get(children[v][i]) with weight weights[v][i])
+
+    private final Map<T, Integer> ids;
+    private final List<T> nodes;
+    private int[][] children;
+    private double[][] weights;
+    private int[] degree;
+    private int edgeCount;
+
+    /**
+     * Add a node to the graph.
+     * @throws RuntimeException when there exist node with the same name
+     * @param newNode a label of the new node
+     * @return the index of the new node
+     * @spec.requires newNode != null, and no dups with the existing Node label
+     * @spec.modifies this
+     * @spec.effects add a new node with label newNode to this
+     */
+    public int addNode(T newNode) {
+        if (Graph.DEBUG) checkRep();
+
+        if (ids.containsKey(newNode))
+            throw new RuntimeException("Duplicate node");
+        int index = nodes.size();
+        if (index == degree.length) {
+            children = Arrays.copyOf(children, 2 * index);
+            weights = Arrays.copyOf(weights, 2 * index);
+            degree = Arrays.copyOf(degree, 2 * index);
+        }
+        children[index] = new int[2];
+        weights[index] = new double[2];
+        ids.put(newNode, index);
+        nodes.add(newNode);
+
+        if (Graph.DEBUG) checkRep();
+        return index;
+    }
+
+    /**
+     * Add a new edge with parent node srcNode, child node dstNode and weight weight
+     * @throws java.util.NoSuchElementException when no node with label srcNode or dstNode
+     * @throws RuntimeException when there exist edge with the same srcNode, dstNode, and weight
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param weight weight of the edge.
+     * @spec.requires srcNode, dstNode != null
+     * @spec.modifies this
+     * @spec.effects add a new edge with a parent node label srcNode, a child node label dstNode and a weight weight
+     */
+    public void addEdge(T srcNode, T dstNode, double weight) {
+        if (Graph.DEBUG) checkRep();
+
+        int src = indexOf(srcNode);
+        int dst = indexOf(dstNode);
+        if (src < 0 || dst < 0)
+            throw new java.util.NoSuchElementException("No such node");
+        if (find(src, dst, weight) >= 0)
+            throw new RuntimeException("Duplicate edge with same srcNode, dstNode and weight");
+        append(src, dst, weight);
+
+        if (Graph.DEBUG) checkRep();
+    }
+
+    /**
+     * Remove the edge with parent node srcNode, child node dstNode and weight weight. The
+     * other edges of srcNode keep their order.
+     * @throws java.util.NoSuchElementException when there is no such edge
+     * @param srcNode label of a node from which the edge to dstNode
+     * @param dstNode label of a node to which the edge from srcNode
+     * @param weight weight of the edge.
+     * @spec.requires srcNode, dstNode != null
+     * @spec.modifies this
+     * @spec.effects remove the edge with a parent node label srcNode, a child node label dstNode and a weight weight
+     */
+    public void removeEdge(T srcNode, T dstNode, double weight) {
+        if (Graph.DEBUG) checkRep();
+
+        int src = indexOf(srcNode);
+        int dst = indexOf(dstNode);
+        int i = src < 0 || dst < 0 ? -1 : find(src, dst, weight);
+        if (i < 0)
+            throw new java.util.NoSuchElementException("No such edge");
+        int moved = degree[src] - i - 1;
+        System.arraycopy(children[src], i + 1, children[src], i, moved);
+        System.arraycopy(weights[src], i + 1, weights[src], i, moved);
+        degree[src]--;
+        edgeCount--;
+
+        if (Graph.DEBUG) checkRep();
+    }
+
+    /**
+     * Return whether a node with label node is present in this graph.
+     * @param node a label of the node to look up
+     * @return true if this graph contains a node labeled node, else false
+     */
+    public boolean containsNode(T node) {
+        return ids.containsKey(node);
+    }
+
+    /**
+     * Return the number of nodes in this graph.
+     * @return the number of nodes in this graph
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Return the number of edges in this graph.
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Return the dense index of a node.
+     * @param node a label of the node to look up
+     * @return the index of the node labeled node, or -1 if this graph has no such node
+     */
+    public int indexOf(T node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Return the label of the node with the given dense index.
+     * @param index the index of the node
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the label of the node with the given index
+     */
+    public T nodeAt(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Return the number of edges leaving a node.
+     * @param index the index of the node
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @return the number of edges leaving the node with the given index
+     */
+    public int childCount(int index) {
+        Objects.checkIndex(index, nodes.size());
+        return degree[index];
+    }
+
+    /**
+     * Return the child of one of a node's edges.
+     * @param index the index of the node
+     * @param i the position of the edge among the node's edges
+     * @throws IndexOutOfBoundsException when index is not a node's index or i &lt; 0 or
+     * i &gt;= childCount(index)
+     * @return the index of the node the i-th edge of the node goes to
+     */
+    public int childAt(int index, int i) {
+        Objects.checkIndex(i, childCount(index));
+        return children[index][i];
+    }
+
+    /**
+     * Return the weight of one of a node's edges.
+     * @param index the index of the node
+     * @param i the position of the edge among the node's edges
+     * @throws IndexOutOfBoundsException when index is not a node's index or i &lt; 0 or
+     * i &gt;= childCount(index)
+     * @return the weight of the i-th edge of the node
+     */
+    public double weightAt(int index, int i) {
+        Objects.checkIndex(i, childCount(index));
+        return weights[index][i];
+    }
+
+    /**
+     * Calls visitor once for each edge leaving a node, in order of position.
+     * @param index the index of the node
+     * @param visitor the action to take for each edge
+     * @throws IndexOutOfBoundsException when index &lt; 0 or index &gt;= nodeCount()
+     * @spec.requires visitor != null and visitor does not change this
+     */
+    public void forEachChild(int index, EdgeVisitor visitor) {
+        int count = childCount(index);
+        int[] to = children[index];
+        double[] weight = weights[index];
+        for (int i = 0; i < count; i++) {
+            visitor.visit(to[i], weight[i]);
+        }
+    }
+
+    /**
+     * @return the position of the edge from src to dst with the given weight, or -1
+     */
+    private int find(int src, int dst, double weight) {
+        for (int i = 0; i < degree[src]; i++) {
+            if (children[src][i] == dst && Double.compare(weights[src][i], weight) == 0)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds an edge from node src to node dst after the other edges of src.
+     */
+    private void append(int src, int dst, double weight) {
+        int i = degree[src];
+        if (i == children[src].length) {
+            children[src] = Arrays.copyOf(children[src], 2 * i);
+            weights[src] = Arrays.copyOf(weights[src], 2 * i);
+        }
+        children[src][i] = dst;
+        weights[src][i] = weight;
+        degree[src]++;
+        edgeCount++;
+    }
+
+    private void checkRep() {
+        // Assert the node lists agree
+        assert ids != null && nodes != null && ids.size() == nodes.size() : "ids and nodes disagree!";
+
+        // Assert every edge goes to a node, and the edges add up
+        int edges = 0;
+        for (int v = 0; v < nodes.size(); v++) {
+            assert ids.get(nodes.get(v)) == v : "node index is inconsistent!";
+            assert children[v].length == weights[v].length && degree[v] <= children[v].length : "edge arrays disagree!";
+            for (int i = 0; i < degree[v]; i++) {
+                assert 0 <= children[v][i] && children[v][i] < nodes.size() : "edge to a missing node!";
+            }
+            edges += degree[v];
+        }
+        assert edges == edgeCount : "edgeCount is wrong!";
+    }
+}
@@ -0,0 +1,153 @@
+package graph.benchmarks;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+import pathfinder.Dijkstra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures how many shortest path queries per second reader threads answer with
+ * Dijkstra.findPath on a ConcurrentGraph, first alone and then while writer threads add and
+ * remove edges, next to a Graph guarded by a ReentrantReadWriteLock under the same load. Run with
+ * <pre>
+ *     ./gradlew :hw-graph:concurrentGraphBenchmark [--args="readers writers seconds"]
+ * </pre>
+ */
+public class ConcurrentGraphBenchmark {
+
+    private static final int NODES = 10_000;
+    private static final int DEGREE = 4;
+    // the farthest apart the ends of a query are, along node numbers, to keep queries local
+    private static final int SPAN = 200;
+
+    /**
+     * @param args optional number of reader threads, writer threads and seconds per run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int readers = args.length > 0 ? Integer.parseInt(args[0])
+                                      : Math.max(1, Runtime.getRuntime().availableProcessors());
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(1, readers / 2);
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        ConcurrentGraph<Integer, Double> concurrent = new ConcurrentGraph<>();
+        Graph<Integer, Double> locked = new Graph<>();
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        Random random = new Random(1);
+        for (int i = 0; i < NODES; i++) {
+            concurrent.addNode(i);
+            locked.addNode(i);
+        }
+        // edges mostly lead to nearby node numbers, like the paths of a map
+        for (int i = 0; i < NODES; i++) {
+            for (int d = 0; d < DEGREE; d++) {
+                int dst = Math.floorMod(i + random.nextInt(2 * SPAN + 1) - SPAN, NODES);
+                double cost = d + random.nextDouble();
+                concurrent.addEdge(i, dst, cost);
+                locked.addEdge(i, dst, cost);
+            }
+        }
+
+        IntConsumer readConcurrent = node -> Dijkstra.findPath(concurrent, node, farEnd(node));
+        IntConsumer readLocked = node -> {
+            lock.readLock().lock();
+            try {
+                Dijkstra.findPath(locked, node, farEnd(node));
+            } finally {
+                lock.readLock().unlock();
+            }
+        };
+        // each write adds an edge with a fresh label and removes it again, so degrees stay fixed
+        IntConsumer writeConcurrent = label -> {
+            int node = Math.floorMod(label * 31, NODES);
+            concurrent.addEdge(node, node, (double) label + DEGREE);
+            concurrent.removeEdge(node, node, (double) label + DEGREE);
+        };
+        IntConsumer writeLocked = label -> {
+            int node = Math.floorMod(label * 31, NODES);
+            lock.writeLock().lock();
+            try {
+                locked.addEdge(node, node, (double) label + DEGREE);
+                locked.removeEdge(node, node, (double) label + DEGREE);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        System.out.printf("%d nodes, %d edges, %d readers, %d writers, %.1f s per run%n",
+                NODES, NODES * DEGREE, readers, writers, seconds);
+        System.out.printf("%-30s %15s %15s%n", "", "queries/s", "writes/s");
+        run("warm-up", readConcurrent, readers, writeConcurrent, writers, seconds / 2);
+        report("ConcurrentGraph, readers only", run("", readConcurrent, readers, null, 0, seconds));
+        report("ConcurrentGraph, with writers",
+                run("", readConcurrent, readers, writeConcurrent, writers, seconds));
+        run("warm-up", readLocked, readers, writeLocked, writers, seconds / 2);
+        report("Graph + RW lock, readers only", run("", readLocked, readers, null, 0, seconds));
+        report("Graph + RW lock, with writers",
+                run("", readLocked, readers, writeLocked, writers, seconds));
+    }
+
+    /**
+     * @return the other end of the query from node
+     */
+    private static int farEnd(int node) {
+        return (node + SPAN) % NODES;
+    }
+
+    /**
+     * Runs readers threads calling read from random nodes and writers threads calling write
+     * with distinct labels for seconds.
+     * @return the queries and writes per second
+     */
+    private static double[] run(String name, IntConsumer read, int readers, IntConsumer write,
+                                int writers, double seconds) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                long count = 0;
+                while (running.get()) {
+                    read.accept(random.nextInt(NODES));
+                    count++;
+                }
+                reads.addAndGet(count);
+            }, "reader-" + t + name));
+        }
+        for (int t = 0; t < writers; t++) {
+            int first = t;
+            int step = writers;
+            threads.add(new Thread(() -> {
+                long count = 0;
+                for (int label = first; running.get(); label += step) {
+                    write.accept(label);
+                    count++;
+                }
+                writes.addAndGet(count);
+            }, "writer-" + t + name));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) thread.start();
+        Thread.sleep((long) (seconds * 1000));
+        running.set(false);
+        for (Thread thread : threads) thread.join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        return new double[] {reads.get() / elapsed, writes.get() / elapsed};
+    }
+
+    private static void report(String name, double[] rates) {
+        System.out.printf("%-30s %,15.0f %,15.0f%n", name, rates[0], rates[1]);
+    }
+}
@@ -0,0 +1,219 @@
+package graph.junitTests;
+import graph.ConcurrentGraph;
+import graph.FrozenGraph;
+import graph.Graph;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.*;
+
+public class ConcurrentGraphTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final int NODES = 100;
+    private static final int WRITERS = 4;
+    private static final int EDGES_PER_WRITER = 2000;
+
+    @Test
+    public void testSameAsGraph(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+        g1.addEdge("n1", "n1", "e2");
+        assertEquals(2, g1.nodeCount());
+        assertTrue(g1.containsNode("n2"));
+        assertEquals(Set.of(new Graph.Edge<>("n1", "n2", "e1"), new Graph.Edge<>("n1", "n1", "e2")),
+                g1.listChildren("n1"));
+
+        g1.removeEdge("n1", "n2", "e1");
+        assertEquals(Set.of(new Graph.Edge<>("n1", "n1", "e2")), g1.viewChildren("n1"));
+        assertTrue(g1.viewChildren("n2").isEmpty());
+    }
+
+    @Test
+    public void testViewIsSnapshot(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addEdge("n1", "n1", "e1");
+        Set<Graph.Edge<String, String>> before = g1.viewChildren("n1");
+        g1.addEdge("n1", "n1", "e2");
+        assertEquals(1, before.size());     // not changed by later edges
+        assertEquals(2, g1.viewChildren("n1").size());
+    }
+
+    @Test
+    public void testFreezeKeptUntilChange(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+        FrozenGraph<String, String> frozen = g1.freeze();
+        assertSame(frozen, g1.freeze());
+        assertEquals(2, frozen.nodeCount());
+        int n1 = frozen.indexOf("n1");
+        assertEquals(1, frozen.edgeEnd(n1) - frozen.edgeStart(n1));
+        assertEquals("n2", frozen.nodeAt(frozen.target(frozen.edgeStart(n1))));
+
+        g1.addEdge("n2", "n1", "e2");
+        FrozenGraph<String, String> next = g1.freeze();
+        assertNotSame(frozen, next);
+        int n2 = next.indexOf("n2");
+        assertEquals(1, next.edgeEnd(n2) - next.edgeStart(n2));
+        assertEquals(0, frozen.edgeEnd(frozen.indexOf("n2")) - frozen.edgeStart(frozen.indexOf("n2")));
+    }
+
+    @Test
+    public void testFreezeDuringWrites() throws InterruptedException {
+        ConcurrentGraph<Integer, Integer> g = new ConcurrentGraph<>();
+        g.addNode(0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                // every new node gets an edge from the node before it, while it is being frozen
+                for (int i = 1; i < 2000; i++) {
+                    g.addNode(i);
+                    g.addEdge(i - 1, i, i);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            FrozenGraph<Integer, Integer> frozen = g.freeze();
+            for (int i = 0; i < frozen.nodeCount(); i++) {
+                for (int e = frozen.edgeStart(i); e < frozen.edgeEnd(i); e++) {
+                    assertTrue(frozen.target(e) >= 0 && frozen.target(e) < frozen.nodeCount());
+                }
+            }
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertEquals(2000, g.freeze().nodeCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupNode(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addNode("n1");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupEdge(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addEdge("n1", "n1", "e1");
+        g1.addEdge("n1", "n1", "e1");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testEdgeToMissingNode(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.addEdge("n1", "n2", "e1");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testRemoveMissingEdge(){
+        ConcurrentGraph<String, String> g1 = new ConcurrentGraph<>();
+        g1.addNode("n1");
+        g1.removeEdge("n1", "n1", "e1");
+    }
+
+    @Test
+    public void testConcurrentAddNode() throws InterruptedException {
+        ConcurrentGraph<Integer, Integer> g = new ConcurrentGraph<>();
+        AtomicInteger added = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < NODES; i++) {
+                    try {
+                        g.addNode(i);
+                        added.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // another thread added it first
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(NODES, added.get());   // each node added exactly once
+        assertEquals(NODES, g.nodeCount());
+    }
+
+    @Test
+    public void testReadersDuringWrites() throws InterruptedException {
+        ConcurrentGraph<Integer, Double> g = new ConcurrentGraph<>();
+        for (int i = 0; i < NODES; i++) {
+            g.addNode(i);
+        }
+        // a slow ring, so that every node can reach every other whatever the writers do
+        for (int i = 0; i < NODES; i++) {
+            g.addEdge(i, (i + 1) % NODES, 1000.0);
+        }
+
+        // writers add edges with distinct costs to shared nodes, while readers search the graph
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < WRITERS; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < EDGES_PER_WRITER; i++) {
+                    double cost = 1 + writer * EDGES_PER_WRITER + i;
+                    g.addEdge(i % NODES, (i * 7) % NODES, cost);
+                    if (i % 2 == 1) g.removeEdge(i % NODES, (i * 7) % NODES, cost);
+                }
+            }));
+        }
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            readers.add(new Thread(() -> {
+                try {
+                    int node = 0;
+                    while (writing.get() || reads.get() == 0) {
+                        int dst = (node * 13 + 1) % NODES;
+                        Path<Integer> path = Dijkstra.findPath(g, node, dst);
+                        assertNotNull(path);
+                        assertEquals(Integer.valueOf(node), path.getStart());
+                        assertEquals(Integer.valueOf(dst), path.getEnd());
+                        assertTrue(path.getCost() <= 1000.0 * Math.floorMod(dst - node, NODES));
+                        reads.incrementAndGet();
+                        node = (node + 1) % NODES;
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        for (Thread thread : readers) thread.start();
+        for (Thread thread : writers) thread.start();
+        for (Thread thread : writers) thread.join();
+        writing.set(false);
+        for (Thread thread : readers) thread.join();
+
+        assertNull(failure.get());
+        assertTrue(reads.get() > 0);
+        int edges = 0;
+        for (int i = 0; i < NODES; i++) {
+            edges += g.viewChildren(i).size();
+        }
+        assertEquals(NODES + WRITERS * EDGES_PER_WRITER / 2, edges);  // every odd edge was removed
+    }
+}
@@ -0,0 +1,107 @@
+package graph.junitTests;
+import graph.FrozenGraph;
+import graph.Graph;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.HashSet;
+import java.util.Set;
+import static org.junit.Assert.*;
+
+public class FrozenGraphTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static Graph<String, Double> triangle(){
+        Graph<String, Double> g = new Graph<>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addEdge("a", "b", 1.0);
+        g.addEdge("a", "c", 2.0);
+        g.addEdge("b", "c", 3.0);
+        g.addEdge("c", "c", 4.0);
+        return g;
+    }
+
+    /**
+     * @return the edges leaving node in frozen, as Graph edges
+     */
+    private static <T, E> Set<Graph.Edge<T, E>> children(FrozenGraph<T, E> frozen, T node){
+        Set<Graph.Edge<T, E>> ret = new HashSet<>();
+        int v = frozen.indexOf(node);
+        for (int e = frozen.edgeStart(v); e < frozen.edgeEnd(v); e++) {
+            ret.add(new Graph.Edge<>(node, frozen.nodeAt(frozen.target(e)), frozen.label(e)));
+        }
+        return ret;
+    }
+
+    @Test
+    public void testEmpty(){
+        FrozenGraph<String, Double> frozen = new Graph<String, Double>().freeze();
+        assertEquals(0, frozen.nodeCount());
+        assertEquals(0, frozen.edgeCount());
+        assertEquals(-1, frozen.indexOf("a"));
+    }
+
+    @Test
+    public void testSameNodesAndEdges(){
+        Graph<String, Double> g = triangle();
+        FrozenGraph<String, Double> frozen = g.freeze();
+        assertEquals(3, frozen.nodeCount());
+        assertEquals(4, frozen.edgeCount());
+        for (String node : g.listNodes()) {
+            assertTrue(frozen.containsNode(node));
+            assertEquals(g.indexOf(node), frozen.indexOf(node));    // same dense indices
+            assertEquals(g.listChildren(node), children(frozen, node));
+        }
+        assertFalse(frozen.containsNode("d"));
+    }
+
+    @Test
+    public void testWeights(){
+        FrozenGraph<String, Double> frozen = triangle().freeze();
+        int a = frozen.indexOf("a");
+        for (int e = frozen.edgeStart(a); e < frozen.edgeEnd(a); e++) {
+            assertEquals(frozen.label(e), frozen.weight(e), 0);
+        }
+
+        Graph<String, String> named = new Graph<>();
+        named.addNode("a");
+        named.addEdge("a", "a", "loop");
+        assertTrue(Double.isNaN(named.freeze().weight(0)));    // not a number
+    }
+
+    @Test
+    public void testNoEdges(){
+        Graph<String, Double> g = triangle();
+        g.addNode("d");
+        FrozenGraph<String, Double> frozen = g.freeze();
+        int d = frozen.indexOf("d");
+        assertEquals(frozen.edgeStart(d), frozen.edgeEnd(d));
+    }
+
+    @Test
+    public void testSnapshotUntilChanged(){
+        Graph<String, Double> g = triangle();
+        FrozenGraph<String, Double> first = g.freeze();
+        assertSame(first, g.freeze());
+
+        g.removeEdge("a", "b", 1.0);
+        FrozenGraph<String, Double> second = g.freeze();
+        assertNotSame(first, second);
+        assertEquals(4, first.edgeCount());     // the old snapshot is unchanged
+        assertEquals(3, second.edgeCount());
+
+        g.addNode("d");
+        assertEquals(4, g.freeze().nodeCount());
+        g.addEdge("d", "a", 5.0);
+        assertEquals(4, g.freeze().edgeCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testEdgeStartOutOfRange(){
+        triangle().freeze().edgeStart(3);
+    }
+}
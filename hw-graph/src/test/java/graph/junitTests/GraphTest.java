@@ -5,6 +5,7 @@ import org.junit.Rule;
 import org.junit.rules.Timeout;
 
 import java.util.Arrays;
+import java.util.Set;
 import static org.junit.Assert.*;
 
 public class GraphTest {
@@ -65,4 +66,99 @@ public class GraphTest {
         g1.addEdge("n1", "n2", "e1");
         g1.addEdge("n1", "n2", "e1");
     }
+
+    @Test
+    public void testContainsNode(){
+        Graph<String, String> g1 = new Graph<>();
+        assertFalse(g1.containsNode("n1"));     // empty
+
+        g1.addNode("n1");
+        assertTrue(g1.containsNode("n1"));      // added node
+        assertFalse(g1.containsNode("n2"));     // missing node
+    }
+
+    @Test
+    public void testDenseIndex(){
+        Graph<String, String> g1 = new Graph<>();
+        assertEquals(0, g1.nodeCount());
+        assertEquals(-1, g1.indexOf("n1"));     // empty
+
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addNode("n3");
+        assertEquals(3, g1.nodeCount());
+        assertEquals(0, g1.indexOf("n1"));      // indices in order of addition
+        assertEquals(2, g1.indexOf("n3"));
+        assertEquals("n2", g1.nodeAt(1));
+        assertEquals(-1, g1.indexOf("n4"));     // missing node
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNodeAtOutOfRange(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.nodeAt(1);
+    }
+
+    @Test
+    public void testRemoveEdge(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+        g1.addEdge("n1", "n2", "e2");
+
+        g1.removeEdge("n1", "n2", "e1");
+        assertEquals(Set.of(new Graph.Edge<>("n1", "n2", "e2")), g1.listChildren("n1"));
+        g1.addEdge("n1", "n2", "e1");           // can be added again
+        assertEquals(2, g1.listChildren("n1").size());
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testRemoveMissingEdge(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+        g1.removeEdge("n2", "n1", "e1");
+    }
+
+    @Test
+    public void testViewChildren(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+
+        Set<Graph.Edge<String, String>> view = g1.viewChildren("n1");
+        assertEquals(g1.listChildren("n1"), view);
+        assertSame(view, g1.viewChildren("n1"));    // not a copy
+        g1.addEdge("n1", "n1", "e2");
+        assertEquals(2, view.size());               // shows later edges
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewChildrenReadOnly(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.viewChildren("n1").add(new Graph.Edge<>("n1", "n1", "e1"));
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testViewChildrenMissingNode(){
+        new Graph<String, String>().viewChildren("n1");
+    }
+
+    @Test
+    public void testForEachChild(){
+        Graph<String, String> g1 = new Graph<>();
+        g1.addNode("n1");
+        g1.addNode("n2");
+        g1.addEdge("n1", "n2", "e1");
+        g1.addEdge("n1", "n1", "e2");
+
+        Set<Graph.Edge<String, String>> seen = new java.util.HashSet<>();
+        g1.forEachChild("n1", seen::add);
+        assertEquals(g1.listChildren("n1"), seen);
+    }
 }
@@ -0,0 +1,339 @@
+package graph.junitTests;
+import graph.FrozenGraph;
+import graph.Graph;
+import graph.GraphView;
+import graph.PersistentGraph;
+import graph.WeightedGraph;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+import pathfinder.DeltaStepping;
+import pathfinder.Dijkstra;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.Assert.*;
+
+public class PersistentGraphTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * A node label whose hash code is shared with every label of the same group, so that
+     * labels collide in the trie.
+     */
+    private static final class Colliding {
+        private final int group;
+        private final int id;
+
+        Colliding(int group, int id) {
+            this.group = group;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).group == group && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return group;
+        }
+    }
+
+    private static PersistentGraph<String, String> path(){
+        return new PersistentGraph<String, String>()
+                .addNode("a").addNode("b").addNode("c")
+                .addEdge("a", "b", "ab")
+                .addEdge("b", "c", "bc");
+    }
+
+    @Test
+    public void testEmpty(){
+        PersistentGraph<String, String> g = new PersistentGraph<>();
+        assertEquals(0, g.nodeCount());
+        assertEquals(0, g.edgeCount());
+        assertFalse(g.containsNode("a"));
+        assertTrue(g.listNodes().isEmpty());
+    }
+
+    @Test
+    public void testSameAsGraph(){
+        PersistentGraph<String, String> g = path().addEdge("a", "a", "aa");
+        assertEquals(3, g.nodeCount());
+        assertEquals(3, g.edgeCount());
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(g.listNodes()));
+        assertEquals(Set.of(new Graph.Edge<>("a", "b", "ab"), new Graph.Edge<>("a", "a", "aa")),
+                g.listChildren("a"));
+        assertEquals(2, g.childCount("a"));
+        assertTrue(g.containsEdge("b", "c", "bc"));
+        assertFalse(g.containsEdge("c", "b", "bc"));
+    }
+
+    @Test
+    public void testVersionsAreIndependent(){
+        PersistentGraph<String, String> v1 = path();
+        PersistentGraph<String, String> v2 = v1.addNode("d").addEdge("c", "d", "cd");
+        PersistentGraph<String, String> v3 = v2.removeEdge("a", "b", "ab");
+
+        // each version keeps exactly the changes made before it
+        assertFalse(v1.containsNode("d"));
+        assertEquals(2, v1.edgeCount());
+        assertTrue(v1.containsEdge("a", "b", "ab"));
+        assertTrue(v2.containsEdge("c", "d", "cd"));
+        assertTrue(v2.containsEdge("a", "b", "ab"));
+        assertEquals(3, v2.edgeCount());
+        assertFalse(v3.containsEdge("a", "b", "ab"));
+        assertTrue(v3.listChildren("a").isEmpty());
+        assertEquals(2, v3.edgeCount());
+    }
+
+    @Test
+    public void testRollback(){
+        PersistentGraph<Integer, Integer> before = new PersistentGraph<>();
+        for (int i = 0; i < 50; i++) {
+            before = before.addNode(i);
+        }
+        PersistentGraph<Integer, Integer> batch = before;
+        for (int i = 0; i < 49; i++) {
+            batch = batch.addEdge(i, i + 1, i);
+        }
+        assertEquals(49, batch.edgeCount());
+
+        // dropping the batch is keeping the old version
+        assertEquals(0, before.edgeCount());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(0, before.childCount(i));
+        }
+    }
+
+    @Test
+    public void testReAddingRemovedEdge(){
+        PersistentGraph<String, String> g = path().removeEdge("a", "b", "ab").addEdge("a", "b", "ab");
+        assertEquals(path().listChildren("a"), g.listChildren("a"));
+        assertEquals(2, g.edgeCount());
+    }
+
+    @Test
+    public void testCollidingNodes(){
+        PersistentGraph<Colliding, Integer> g = new PersistentGraph<>();
+        for (int group = 0; group < 3; group++) {
+            for (int id = 0; id < 10; id++) {
+                g = g.addNode(new Colliding(group, id));
+            }
+        }
+        assertEquals(30, g.nodeCount());
+        for (int id = 0; id < 10; id++) {
+            g = g.addEdge(new Colliding(0, id), new Colliding(1, id), id);
+        }
+        for (int id = 0; id < 10; id++) {
+            assertTrue(g.containsNode(new Colliding(2, id)));
+            assertEquals(1, g.childCount(new Colliding(0, id)));
+            assertTrue(g.containsEdge(new Colliding(0, id), new Colliding(1, id), id));
+        }
+        assertFalse(g.containsNode(new Colliding(0, 10)));
+        for (int id = 0; id < 10; id += 2) {
+            g = g.removeEdge(new Colliding(0, id), new Colliding(1, id), id);
+        }
+        assertEquals(5, g.edgeCount());
+        assertFalse(g.containsEdge(new Colliding(0, 0), new Colliding(1, 0), 0));
+        assertTrue(g.containsEdge(new Colliding(0, 1), new Colliding(1, 1), 1));
+    }
+
+    @Test
+    public void testManyChangesMatchGraph(){
+        // apply the same random edges to a Graph and a PersistentGraph, keeping every version
+        Random random = new Random(42);
+        Graph<Integer, Integer> expected = new Graph<>();
+        PersistentGraph<Integer, Integer> g = new PersistentGraph<>();
+        for (int i = 0; i < 500; i++) {
+            expected.addNode(i);
+            g = g.addNode(i);
+        }
+        PersistentGraph<Integer, Integer> halfway = null;
+        for (int i = 0; i < 4000; i++) {
+            int src = random.nextInt(500);
+            int dst = random.nextInt(500);
+            int label = random.nextInt(4);
+            if (expected.listChildren(src).contains(new Graph.Edge<>(src, dst, label))) {
+                expected.removeEdge(src, dst, label);
+                g = g.removeEdge(src, dst, label);
+            } else {
+                expected.addEdge(src, dst, label);
+                g = g.addEdge(src, dst, label);
+            }
+            if (i == 1999) halfway = g;
+        }
+
+        int edges = 0;
+        for (int i = 0; i < 500; i++) {
+            assertEquals(expected.listChildren(i), g.listChildren(i));
+            edges += expected.listChildren(i).size();
+        }
+        assertEquals(edges, g.edgeCount());
+        assertNotNull(halfway);
+        assertTrue(halfway.edgeCount() <= 2000);
+    }
+
+    @Test
+    public void testCopyOfGraph(){
+        Graph<String, Double> g = new Graph<>();
+        g.addNode("x");
+        g.addNode("y");
+        g.addEdge("x", "y", 1.0);
+        g.addEdge("x", "x", 2.0);
+        PersistentGraph<String, Double> copy = new PersistentGraph<>(g);
+        assertEquals(2, copy.edgeCount());
+        assertEquals(g.listChildren("x"), copy.listChildren("x"));
+
+        // later changes to the Graph do not reach the copy
+        g.addEdge("y", "x", 3.0);
+        assertEquals(0, copy.childCount("y"));
+        Graph<String, Double> back = copy.toGraph();
+        assertEquals(g.listChildren("x"), back.listChildren("x"));
+        assertTrue(back.listChildren("y").isEmpty());
+    }
+
+    @Test
+    public void testViewChildren(){
+        PersistentGraph<Colliding, Integer> g = new PersistentGraph<>();
+        g = g.addNode(new Colliding(0, 0));
+        for (int i = 1; i <= 200; i++) {
+            // many edges, some with colliding destinations, so the trie is several levels deep
+            Colliding dst = new Colliding(i % 7, i);
+            g = g.addNode(dst).addEdge(new Colliding(0, 0), dst, i);
+        }
+        Set<Graph.Edge<Colliding, Integer>> view = g.viewChildren(new Colliding(0, 0));
+        assertEquals(200, view.size());
+        assertEquals(g.listChildren(new Colliding(0, 0)), new HashSet<>(view));
+        assertEquals(g.listChildren(new Colliding(0, 0)), view);
+        assertTrue(view.contains(new Graph.Edge<>(new Colliding(0, 0), new Colliding(3, 10), 10)));
+        assertFalse(view.contains(new Graph.Edge<>(new Colliding(0, 0), new Colliding(3, 10), 11)));
+        assertTrue(g.viewChildren(new Colliding(1, 1)).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewChildrenReadOnly(){
+        PersistentGraph<String, String> g = path();
+        g.viewChildren("a").clear();
+    }
+
+    @Test
+    public void testFreeze(){
+        PersistentGraph<String, String> v1 = path();
+        FrozenGraph<String, String> frozen = v1.freeze();
+        assertSame(frozen, v1.freeze());
+        assertEquals(3, frozen.nodeCount());
+        assertEquals(2, frozen.edgeCount());
+        int a = frozen.indexOf("a");
+        assertEquals("b", frozen.nodeAt(frozen.target(frozen.edgeStart(a))));
+
+        // a later version has its own snapshot, and the old one is unchanged
+        PersistentGraph<String, String> v2 = v1.addEdge("c", "a", "ca");
+        assertEquals(3, v2.freeze().edgeCount());
+        assertEquals(2, v1.freeze().edgeCount());
+    }
+
+    /**
+     * A view of a version which fails if a search freezes it.
+     */
+    private static final class NoFreezing implements GraphView<Integer, Double> {
+        private final PersistentGraph<Integer, Double> graph;
+
+        NoFreezing(PersistentGraph<Integer, Double> graph) {
+            this.graph = graph;
+        }
+
+        public boolean containsNode(Integer node) {
+            return graph.containsNode(node);
+        }
+
+        public int nodeCount() {
+            return graph.nodeCount();
+        }
+
+        public List<Integer> listNodes() {
+            return graph.listNodes();
+        }
+
+        public Set<Graph.Edge<Integer, Double>> viewChildren(Integer node) {
+            return graph.viewChildren(node);
+        }
+
+        public boolean freezeForSearch() {
+            return graph.freezeForSearch();
+        }
+
+        public FrozenGraph<Integer, Double> freeze() {
+            throw new AssertionError("searched version was frozen");
+        }
+    }
+
+    private static PersistentGraph<Integer, Double> chain(int n) {
+        PersistentGraph<Integer, Double> g = new PersistentGraph<>();
+        for (int i = 0; i < n; i++) {
+            g = g.addNode(i);
+            if (i > 0) g = g.addEdge(i - 1, i, 1.0);
+        }
+        return g;
+    }
+
+    @Test
+    public void testSearchesDoNotFreeze(){
+        PersistentGraph<Integer, Double> g = chain(100).addEdge(0, 50, 10.0);
+        assertFalse(g.freezeForSearch());
+        NoFreezing view = new NoFreezing(g);
+        assertEquals(Dijkstra.findPath(g.toGraph(), 0, 99), Dijkstra.findPath(view, 0, 99));
+        assertEquals(59.0, Dijkstra.findPath(view, 0, 99).getCost(), 0.001);
+        assertEquals(5, Dijkstra.withinRadius(view, 0, 4.0).size());
+        assertEquals(59, Dijkstra.shortestPathTree(view, 0).distanceTo(99), 0.001);
+        assertEquals(59, DeltaStepping.shortestPathTree(view, 0).distanceTo(99), 0.001);
+        WeightedGraph<Integer> weighted = new WeightedGraph<>(view);
+        assertEquals(100, weighted.edgeCount());
+        assertEquals(100, weighted.nodeCount());
+    }
+
+    @Test
+    public void testNewVersionsSearchedWithoutCopying(){
+        // each version shares all but a few trie nodes with the last, and a search of it only
+        // reads what it explores; freezing or copying 100000 nodes per version would take
+        // minutes here rather than well under the timeout
+        PersistentGraph<Integer, Double> base = chain(100_000);
+        PersistentGraph<Integer, Double> g = base;
+        for (int i = 0; i < 5000; i++) {
+            int src = (i * 19) % 99_000;
+            g = g.addEdge(src, src + 2, 0.5);
+            assertEquals(0.5, Dijkstra.findPath(g, src, src + 2).getCost(), 0.001);
+            assertEquals(2.0, Dijkstra.findPath(base, src, src + 2).getCost(), 0.001);
+        }
+        assertEquals(base.edgeCount() + 5000, g.edgeCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupNode(){
+        path().addNode("a");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupEdge(){
+        path().addEdge("a", "b", "ab");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testEdgeToMissingNode(){
+        path().addEdge("a", "d", "ad");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testRemoveMissingEdge(){
+        path().removeEdge("a", "c", "ac");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testChildrenOfMissingNode(){
+        path().listChildren("d");
+    }
+}
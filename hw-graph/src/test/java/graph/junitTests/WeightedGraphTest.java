@@ -0,0 +1,137 @@
+package graph.junitTests;
+import graph.Graph;
+import graph.WeightedGraph;
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class WeightedGraphTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static WeightedGraph<String> path(){
+        WeightedGraph<String> g = new WeightedGraph<>();
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addEdge("a", "b", 1.5);
+        g.addEdge("a", "c", 2.5);
+        g.addEdge("b", "c", 3.5);
+        return g;
+    }
+
+    @Test
+    public void testEmpty(){
+        WeightedGraph<String> g = new WeightedGraph<>();
+        assertEquals(0, g.nodeCount());
+        assertEquals(0, g.edgeCount());
+        assertFalse(g.containsNode("a"));
+        assertEquals(-1, g.indexOf("a"));
+    }
+
+    @Test
+    public void testChildrenInOrder(){
+        WeightedGraph<String> g = path();
+        int a = g.indexOf("a");
+        assertEquals(3, g.edgeCount());
+        assertEquals(2, g.childCount(a));
+        assertEquals("b", g.nodeAt(g.childAt(a, 0)));
+        assertEquals(1.5, g.weightAt(a, 0), 0);
+        assertEquals("c", g.nodeAt(g.childAt(a, 1)));
+        assertEquals(2.5, g.weightAt(a, 1), 0);
+        assertEquals(0, g.childCount(g.indexOf("c")));
+    }
+
+    @Test
+    public void testForEachChild(){
+        WeightedGraph<String> g = path();
+        List<String> visited = new ArrayList<>();
+        g.forEachChild(g.indexOf("a"), (child, weight) -> visited.add(g.nodeAt(child) + weight));
+        assertEquals(List.of("b1.5", "c2.5"), visited);
+    }
+
+    @Test
+    public void testManyEdges(){
+        WeightedGraph<Integer> g = new WeightedGraph<>();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, g.addNode(i));      // indices in order of addition
+        }
+        for (int i = 0; i < 100; i++) {
+            g.addEdge(0, i, i);
+        }
+        assertEquals(100, g.childCount(0));
+        assertEquals(99, g.childAt(0, 99));
+        assertEquals(99.0, g.weightAt(0, 99), 0);
+    }
+
+    @Test
+    public void testRemoveEdgeKeepsOrder(){
+        WeightedGraph<String> g = path();
+        g.addEdge("a", "a", 0.5);
+        g.removeEdge("a", "c", 2.5);
+        int a = g.indexOf("a");
+        assertEquals(2, g.childCount(a));
+        assertEquals("b", g.nodeAt(g.childAt(a, 0)));
+        assertEquals("a", g.nodeAt(g.childAt(a, 1)));
+        assertEquals(3, g.edgeCount());
+    }
+
+    @Test
+    public void testParallelEdges(){
+        WeightedGraph<String> g = path();
+        g.addEdge("a", "b", 4.0);       // same nodes, different weight
+        assertEquals(3, g.childCount(g.indexOf("a")));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupEdge(){
+        path().addEdge("a", "b", 1.5);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDupNode(){
+        path().addNode("a");
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testEdgeToMissingNode(){
+        path().addEdge("a", "d", 1.0);
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testRemoveMissingEdge(){
+        path().removeEdge("a", "b", 2.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testChildAtOutOfRange(){
+        WeightedGraph<String> g = path();
+        g.childAt(g.indexOf("b"), 1);
+    }
+
+    @Test
+    public void testCopyOfGraph(){
+        Graph<String, Double> g = new Graph<>();
+        g.addNode("x");
+        g.addNode("y");
+        g.addEdge("x", "y", 1.0);
+        g.addEdge("x", "x", 2.0);
+        g.addEdge("y", "x", 3.0);
+        WeightedGraph<String> copy = new WeightedGraph<>(g);
+        assertEquals(2, copy.nodeCount());
+        assertEquals(3, copy.edgeCount());
+        for (String node : g.listNodes()) {
+            int v = copy.indexOf(node);
+            assertEquals(g.indexOf(node), v);       // same dense indices
+            assertEquals(g.listChildren(node).size(), copy.childCount(v));
+            for (int i = 0; i < copy.childCount(v); i++) {
+                assertTrue(g.listChildren(node).contains(
+                        new Graph.Edge<>(node, copy.nodeAt(copy.childAt(v, i)), copy.weightAt(v, i))));
+            }
+        }
+    }
+}
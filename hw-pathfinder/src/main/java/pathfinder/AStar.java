@@ -0,0 +1,75 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * This is an util class which provides A* search over graphs of Points, using the
+ * straight-line distance between Points to steer the search toward the destination.
+ */
+public class AStar {
+
+    /**
+     * Finds the shortest path from srcNode to dstNode, assuming no edge costs less than the
+     * straight-line distance between its endpoints.
+     * @param graph a graph with Point nodes and Double type edge label
+     * @param srcNode starting node for the search
+     * @param dstNode destination node for the search
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires graph, srcNode, dstNode not null, every edge label of graph is at least the
+     * distance between its endpoints
+     */
+    public static Path<Point> findPath(GraphView<Point, Double> graph, Point srcNode, Point dstNode){
+        return findPath(graph, srcNode, dstNode, 1.0, null);
+    }
+
+    /**
+     * Finds the shortest path from srcNode to dstNode, estimating the remaining cost from a
+     * node as scale times its straight-line distance to dstNode, and adds the work done to stats.
+     * @param graph a graph with Point nodes and Double type edge label
+     * @param srcNode starting node for the search
+     * @param dstNode destination node for the search
+     * @param scale cost per unit of straight-line distance, such as admissibleScale(graph)
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires graph, srcNode, dstNode not null, 0 &lt;= scale &lt;= admissibleScale(graph)
+     * @spec.modifies stats
+     */
+    public static Path<Point> findPath(GraphView<Point, Double> graph, Point srcNode, Point dstNode,
+                                       double scale, SearchStats stats){
+        return Dijkstra.search(graph, srcNode, dstNode,
+                p -> scale * distance(p, dstNode), stats);
+    }
+
+    /**
+     * Returns the largest factor by which straight-line distance can be multiplied while still
+     * never overestimating the cost of an edge. Scaling the heuristic this way keeps it tight
+     * when edge costs use different units than the Point coordinates.
+     * @param graph a graph with Point nodes and non-negative Double type edge label
+     * @return the smallest ratio of edge cost to edge length over every edge of positive length,
+     * or 0 if graph has no such edge
+     */
+    public static double admissibleScale(GraphView<Point, Double> graph){
+        double scale = Double.POSITIVE_INFINITY;
+        for (Point node : graph.listNodes()) {
+            for (Graph.Edge<Point, Double> edge : graph.viewChildren(node)) {
+                double length = distance(edge.getsrcName(), edge.getdstName());
+                if (length > 0) {
+                    scale = Math.min(scale, edge.getLabel() / length);
+                }
+            }
+        }
+        return Double.isInfinite(scale) ? 0 : scale;
+    }
+
+    /**
+     * @return the straight-line distance between a and b
+     */
+    static double distance(Point a, Point b){
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+}
@@ -0,0 +1,167 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.*;
+
+/**
+ * Runs shortest path queries of a ModelAPI, or other path searches submitted to it, on a
+ * dedicated, bounded pool of search threads and returns their results as CompletableFutures,
+ * so callers are not blocked during the search.
+ * <p>
+ * At most threads searches run at once and at most queueCapacity more wait for a thread; past
+ * that, new queries fail right away with a RejectedExecutionException. When a returned future
+ * is cancelled or times out, its search is removed from the queue or interrupted, and the
+ * searches of this package stop as soon as they see the interrupt.
+ */
+public class AsyncRouter implements AutoCloseable {
+
+    // RI: model, executor != null
+    // AF(this) = an asynchronous view of model, running its searches on executor
+
+    private final ModelAPI model;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a router with its own pool of search threads.
+     * @param model the model whose queries to run
+     * @param threads the number of searches that may run at once
+     * @param queueCapacity the number of queries that may wait for a thread
+     * @throws IllegalArgumentException if threads &lt;= 0 or queueCapacity &lt;= 0
+     * @spec.requires model != null
+     */
+    public AsyncRouter(ModelAPI model, int threads, int queueCapacity) {
+        if (threads <= 0 || queueCapacity <= 0)
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        this.model = model;
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "route-search");
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Starts finding the shortest path, by distance, between the two provided buildings.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @return A future completed with the path (or {@literal null} if none exists), or
+     * completed exceptionally with the IllegalArgumentException of an invalid name or the
+     * RejectedExecutionException of a full queue. Cancelling it stops the search.
+     */
+    public CompletableFuture<Path<Point>> findShortestPath(String startShortName, String endShortName) {
+        return submit(() -> model.findShortestPath(startShortName, endShortName));
+    }
+
+    /**
+     * Starts finding the shortest path, by distance, between the two provided buildings, giving
+     * up if it takes longer than timeout.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param timeout        how long to wait before giving up, in units of unit
+     * @param unit           the unit of timeout
+     * @return The same as findShortestPath(startShortName, endShortName), except that it is
+     * completed exceptionally with a TimeoutException, and the search stopped, after timeout.
+     */
+    public CompletableFuture<Path<Point>> findShortestPath(String startShortName, String endShortName,
+                                                           long timeout, TimeUnit unit) {
+        return findShortestPath(startShortName, endShortName).orTimeout(timeout, unit);
+    }
+
+    /**
+     * Starts running search, such as a query from a location which ModelAPI does not cover, on
+     * the same search threads and queue as the queries of the model.
+     *
+     * @param search the search to run, which should stop when its thread is interrupted
+     * @return A future completed with the path search returns, or completed exceptionally with
+     * the exception it throws or the RejectedExecutionException of a full queue. Cancelling it
+     * stops the search.
+     * @spec.requires search != null
+     */
+    public CompletableFuture<Path<Point>> submit(Callable<Path<Point>> search) {
+        SearchTask task = new SearchTask(search);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.result.completeExceptionally(e);
+        }
+        return task.result;
+    }
+
+    /**
+     * Starts running search on the search threads, giving up if it takes longer than timeout.
+     *
+     * @param search  the search to run, which should stop when its thread is interrupted
+     * @param timeout how long to wait before giving up, in units of unit
+     * @param unit    the unit of timeout
+     * @return The same as submit(search), except that it is completed exceptionally with a
+     * TimeoutException, and the search stopped, after timeout.
+     * @spec.requires search != null
+     */
+    public CompletableFuture<Path<Point>> submit(Callable<Path<Point>> search, long timeout, TimeUnit unit) {
+        return submit(search).orTimeout(timeout, unit);
+    }
+
+    /**
+     * @return the number of queries waiting for a search thread
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of searches running right now
+     */
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Stops accepting queries and interrupts the running searches.
+     * @spec.modifies this
+     */
+    @Override
+    public void close() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((SearchTask) queued).result.cancel(false);
+        }
+    }
+
+    /**
+     * A queued or running search, which completes result when it finishes and is cancelled,
+     * interrupting its thread if running, when result is cancelled or times out.
+     */
+    private class SearchTask extends FutureTask<Void> {
+
+        private final CompletableFuture<Path<Point>> result;
+
+        SearchTask(Callable<Path<Point>> search) {
+            this(new CompletableFuture<>(), search);
+        }
+
+        private SearchTask(CompletableFuture<Path<Point>> result, Callable<Path<Point>> search) {
+            super(() -> {
+                try {
+                    result.complete(search.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+                return null;
+            });
+            this.result = result;
+
+            // CompletableFuture.cancel never interrupts anything, so stop the task ourselves
+            result.whenComplete((path, e) -> {
+                if (e instanceof CancellationException || e instanceof TimeoutException) {
+                    cancel(true);
+                    executor.remove(this);
+                }
+            });
+        }
+    }
+}
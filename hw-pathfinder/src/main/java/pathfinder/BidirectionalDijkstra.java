@@ -0,0 +1,292 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.GraphView;
+import graph.WeightedGraph;
+import pathfinder.datastructures.Path;
+
+/**
+ * Finds shortest paths by running Dijkstra's algorithm forward from the start and backward
+ * from the destination at the same time, stopping once the two searches have met on a path
+ * that neither can improve. Each query typically settles about half as many nodes as
+ * Dijkstra.findPath.
+ * <p>
+ * The constructor copies the graph, and a reversed copy of it for the backward search, into
+ * WeightedGraphs, so the searches read primitive weights by node index. Every later change to
+ * the graph must be reported with edgeAdded or edgeRemoved before the next query. Like
+ * Dijkstra, a search keeps its state in per-thread workspaces, and stops with a
+ * CancellationException if the calling thread is interrupted.
+ */
+public class BidirectionalDijkstra<T> {
+
+    // forward holds every edge of the graph, and reverse holds every edge flipped, so that the
+    // children of a node in reverse are the nodes with an edge into it in the graph.
+    //
+    // RI: forward, reverse != null, forward and reverse have the same nodes with the same
+    //     indices, and reverse has an edge (b, a, c) exactly when forward has an edge (a, b, c)
+    // AF(this) = a shortest path finder over the graph forward
+
+    private final WeightedGraph<T> forward;
+    private final WeightedGraph<T> reverse;
+
+    // the backward search's workspace for each thread, the forward one being Dijkstra's
+    private static final ThreadLocal<SearchWorkspace> BACKWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * Creates a bidirectional search over graph, building its reverse adjacency.
+     * @param graph a graph with any type of node label and non-negative Double type edge label
+     * @spec.requires graph != null and every later change to graph is reported to this
+     */
+    public BidirectionalDijkstra(GraphView<T, Double> graph) {
+        this.forward = new WeightedGraph<>(graph);
+        this.reverse = new WeightedGraph<>();
+        for (int i = 0; i < forward.nodeCount(); i++) {
+            reverse.addNode(forward.nodeAt(i));
+        }
+        for (int i = 0; i < forward.nodeCount(); i++) {
+            for (int j = 0; j < forward.childCount(i); j++) {
+                reverse.addEdge(forward.nodeAt(forward.childAt(i, j)), forward.nodeAt(i), forward.weightAt(i, j));
+            }
+        }
+    }
+
+    /**
+     * Records that the edge (src, dst, cost) was added to the graph.
+     * @param src the start of the new edge
+     * @param dst the end of the new edge
+     * @param cost the label of the new edge
+     * @spec.requires the edge is now in graph, and no query runs at the same time
+     * @spec.modifies this
+     */
+    void edgeAdded(T src, T dst, double cost) {
+        forward.addEdge(src, dst, cost);
+        reverse.addEdge(dst, src, cost);
+    }
+
+    /**
+     * Records that the edge (src, dst, cost) was removed from the graph.
+     * @param src the start of the removed edge
+     * @param dst the end of the removed edge
+     * @param cost the label of the removed edge
+     * @spec.requires the edge was in graph and has been removed, and no query runs at the same
+     * time
+     * @spec.modifies this
+     */
+    void edgeRemoved(T src, T dst, double cost) {
+        forward.removeEdge(src, dst, cost);
+        reverse.removeEdge(dst, src, cost);
+    }
+
+    /**
+     * Finds a shortest path with a one-off bidirectional search. This builds the reverse
+     * adjacency of graph on every call, so repeated queries should share one instance instead.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires graph, srcNode, dstNode not null, all edge labels of graph are non-negative
+     */
+    public static <T> Path<T> findPath(GraphView<T, Double> graph, T srcNode, T dstNode) {
+        return new BidirectionalDijkstra<>(graph).findPath(srcNode, dstNode);
+    }
+
+    /**
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @throws IllegalArgumentException when the graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires srcNode, dstNode not null
+     */
+    public Path<T> findPath(T srcNode, T dstNode) {
+        return findPath(srcNode, dstNode, null);
+    }
+
+    /**
+     * Same as findPath(srcNode, dstNode), and also adds the work done to stats.
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when the graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires srcNode, dstNode not null
+     * @spec.modifies stats
+     */
+    public Path<T> findPath(T srcNode, T dstNode, SearchStats stats) {
+        if (!forward.containsNode(srcNode) || !forward.containsNode(dstNode)) {
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+        if (stats != null) stats.queryStarted();
+        try {
+            return search(srcNode, dstNode, stats);
+        } finally {
+            if (stats != null) stats.queryFinished();
+        }
+    }
+
+    /**
+     * Does the search of findPath, with the arguments already checked.
+     */
+    private Path<T> search(T srcNode, T dstNode, SearchStats stats) {
+        if (srcNode.equals(dstNode)) {
+            return new Path<>(srcNode);
+        }
+
+        Frontier fwd = new Frontier(Dijkstra.workspace(), forward.nodeCount(), forward.indexOf(srcNode));
+        Frontier bwd = new Frontier(BACKWARD.get(), forward.nodeCount(), forward.indexOf(dstNode));
+
+        // best is the cost of the shortest complete path seen so far, made of the forward path
+        // to meetFwd, an edge of cost meetCost, and the backward path from meetBwd.
+        double best = Double.POSITIVE_INFINITY;
+        int meetFwd = -1;
+        int meetBwd = -1;
+        double meetCost = 0;
+
+        while (!fwd.isEmpty() && !bwd.isEmpty()) {
+            // Any path not yet seen is at least as long as the sum of the two frontiers' minimum
+            // distances, so once that reaches best no better path remains.
+            if (fwd.minDist() + bwd.minDist() >= best) break;
+
+            boolean isForward = fwd.size() <= bwd.size();
+            Frontier self = isForward ? fwd : bwd;
+            Frontier other = isForward ? bwd : fwd;
+            WeightedGraph<T> edges = isForward ? forward : reverse;
+
+            int u = self.settleMin();
+            if (stats != null) {
+                stats.heapPopped();
+                stats.nodeSettled();
+            }
+            Dijkstra.checkInterrupted();
+
+            for (int i = 0; i < edges.childCount(u); i++) {
+                int v = edges.childAt(u, i);
+                double cost = edges.weightAt(u, i);
+                boolean pushed = self.relax(u, v, cost);
+                if (stats != null) {
+                    stats.edgeRelaxed();
+                    if (pushed) stats.heapPushed(fwd.size() + bwd.size());
+                }
+
+                if (other.isReached(v)) {
+                    double total = self.dist(u) + cost + other.dist(v);
+                    if (total < best) {
+                        best = total;
+                        meetFwd = isForward ? u : v;
+                        meetBwd = isForward ? v : u;
+                        meetCost = cost;
+                    }
+                }
+            }
+        }
+
+        if (meetFwd < 0) return null;
+
+        Path<T> path = fwd.pathTo(meetFwd);
+        path = path.extend(forward.nodeAt(meetBwd), meetCost);
+        for (int x = meetBwd; bwd.parent(x) != -1; x = bwd.parent(x)) {
+            path = path.extend(forward.nodeAt(bwd.parent(x)), bwd.parentCost(x));
+        }
+        return path;
+    }
+
+    /**
+     * Represents the mutable state of a single-direction Dijkstra search, kept in a workspace by
+     * the graph's node indices.
+     */
+    private class Frontier {
+
+        // RI: workspace != null, and its heap holds exactly the reached, unsettled nodes
+        // AF(this) = the search held by workspace
+
+        private final SearchWorkspace workspace;
+
+        /**
+         * Starts a search from root, resetting workspace.
+         */
+        Frontier(SearchWorkspace workspace, int nodeCount, int root) {
+            this.workspace = workspace;
+            workspace.reset(nodeCount);
+            workspace.reach(root);
+            workspace.update(root, 0, -1, 0);
+            workspace.heap().insertOrDecrease(root, 0);
+        }
+
+        boolean isEmpty() {
+            return workspace.heap().isEmpty();
+        }
+
+        int size() {
+            return workspace.heap().size();
+        }
+
+        double minDist() {
+            return workspace.heap().peekPriority();
+        }
+
+        int settleMin() {
+            int id = workspace.heap().removeMin();
+            workspace.settle(id);
+            return id;
+        }
+
+        boolean isReached(int id) {
+            return workspace.isReached(id);
+        }
+
+        double dist(int id) {
+            return workspace.dist(id);
+        }
+
+        int parent(int id) {
+            return workspace.parent(id);
+        }
+
+        double parentCost(int id) {
+            return workspace.parentCost(id);
+        }
+
+        /**
+         * Lowers the distance of v if the edge of cost cost from settled node u shortens it.
+         * @return true if the distance of v was lowered, else false
+         */
+        boolean relax(int u, int v, double cost) {
+            if (!workspace.isReached(v)) {
+                workspace.reach(v);
+            } else if (workspace.isSettled(v)) {
+                return false;
+            }
+
+            double newDist = workspace.dist(u) + cost;
+            if (newDist < workspace.dist(v)) {
+                workspace.update(v, newDist, u, cost);
+                workspace.heap().insertOrDecrease(v, newDist);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return the path from the root of this search to the node with the given index
+         */
+        Path<T> pathTo(int id) {
+            int steps = 0;
+            for (int x = id; workspace.parent(x) != -1; x = workspace.parent(x)) {
+                steps++;
+            }
+            int[] trail = workspace.trail(steps);
+            int x = id;
+            for (int i = steps - 1; i >= 0; i--) {
+                trail[i] = x;
+                x = workspace.parent(x);
+            }
+
+            Path<T> path = new Path<>(forward.nodeAt(x));
+            for (int i = 0; i < steps; i++) {
+                path = path.extend(forward.nodeAt(trail[i]), workspace.parentCost(trail[i]));
+            }
+            return path;
+        }
+    }
+}
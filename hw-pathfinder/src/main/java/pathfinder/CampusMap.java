@@ -14,26 +14,56 @@ package pathfinder;
 import graph.Graph;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointIndex;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  *  Represent buildings and path data.
  *  Each building data consist of shortName, longName, and coordinate on map.
  *  Each path data consist of start, end coordinate on map, and cost.
+ *  <p>
+ *  Walkways can be closed or given new costs while the map is in use, such as during
+ *  construction. Changes are shared by every CampusMap and take effect for the next query.
+ *  Precomputed search structures are updated or invalidated as needed: a change only
+ *  rebuilds what it could have made wrong. Rebuilding happens on a background thread from a
+ *  copy of the graph, and queries use Dijkstra search until it is done, so neither queries nor
+ *  changes wait for it.
  */
 public class CampusMap implements ModelAPI {
 
     static final Map<String, String> buildingName;
     static final Map<String, Point> buildingCor;
     static final Graph<Point, Double> campusGraph;
+    static volatile double heuristicScale;
+    static final boolean symmetric;
+    static final Map<Point, List<String>> buildingsAt;
+    static final PointIndex locationIndex;
+    static final PointIndex buildingIndex;
+    static final long loadNanos;
 
     static {
+        long loadStart = System.nanoTime();
+
         // Load data from ../../resources/data/[fileName]
         List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
         List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
@@ -43,54 +73,346 @@ public class CampusMap implements ModelAPI {
         buildingCor = new HashMap<>();
         campusGraph = new Graph<>();
 
+        // every location is stored as one Point, shared by the graph and the building maps
+        Map<Point, Point> locations = new HashMap<>();
+
         // looping over parsed building data to store them
         for (CampusBuilding campusBuilding : buildings) {
             String sName = campusBuilding.getShortName();
             String lName = campusBuilding.getLongName();
-            double bld_x = campusBuilding.getX();
-            double bld_y = campusBuilding.getY();
+            Point location = intern(locations, campusBuilding.getX(), campusBuilding.getY());
 
             // add to buildingName hashMap
             buildingName.put(sName, lName);
 
             // add to buildingCor haspMap
-            buildingCor.put(sName, new Point(bld_x, bld_y));
-
-            // add to campusGraph Node
-            campusGraph.addNode(new Point(bld_x, bld_y));
+            buildingCor.put(sName, location);
         }
 
-        // looping over parsed path data to store them
+        // looping over parsed path data to store them, adding their ends to campusGraph the
+        // first time they are seen
         for (CampusPath campusPath : paths) {
-            double src_x = campusPath.getX1();
-            double src_y = campusPath.getY1();
-            double dst_x = campusPath.getX2();
-            double dst_y = campusPath.getY2();
-            double cost = campusPath.getDistance();
+            Point src = intern(locations, campusPath.getX1(), campusPath.getY1());
+            Point dst = intern(locations, campusPath.getX2(), campusPath.getY2());
 
-            // add nodes to campusGraph if it's not already stored in the campusGraph
-            Point src = new Point(src_x, src_y);
-            Point dst = new Point(dst_x, dst_y);
+            // add Edges to campusGraph
+            campusGraph.addEdge(src, dst, campusPath.getDistance());
+        }
 
-            if (!campusGraph.listNodes().contains(src))
-                campusGraph.addNode(src);
+        // path costs are in different units than coordinates, so scale the A* heuristic
+        heuristicScale = AStar.admissibleScale(campusGraph);
 
-            if (!campusGraph.listNodes().contains(dst))
-                campusGraph.addNode(dst);
+        // every walkway is listed in both directions, but check rather than assume
+        boolean allReversed = true;
+        for (Point node : campusGraph.listNodes()) {
+            for (Graph.Edge<Point, Double> edge : campusGraph.viewChildren(node)) {
+                Graph.Edge<Point, Double> reverse =
+                        new Graph.Edge<>(edge.getdstName(), edge.getsrcName(), edge.getLabel());
+                if (!campusGraph.viewChildren(edge.getdstName()).contains(reverse))
+                    allReversed = false;
+            }
+        }
+        symmetric = allReversed;
 
-            // add Edges to campusGraph
-            campusGraph.addEdge(src, dst, cost);
+        // several buildings may share an entrance, so keep every name at each location
+        buildingsAt = new HashMap<>();
+        for (Map.Entry<String, Point> building : buildingCor.entrySet()) {
+            buildingsAt.computeIfAbsent(building.getValue(), k -> new ArrayList<>()).add(building.getKey());
         }
+        for (List<String> names : buildingsAt.values()) {
+            Collections.sort(names);
+        }
+        locationIndex = new PointIndex(campusGraph.listNodes());
+        buildingIndex = new PointIndex(buildingsAt.keySet());
+
+        loadNanos = System.nanoTime() - loadStart;
+    }
+
+    /**
+     * Returns the Point stored for location (x, y), adding it to locations and to campusGraph
+     * if this is the first time it is seen, with one hash lookup.
+     * @return the Point in locations equal to (x, y)
+     * @spec.requires locations holds exactly the nodes of campusGraph
+     */
+    private static Point intern(Map<Point, Point> locations, double x, double y) {
+        Point location = new Point(x, y);
+        Point stored = locations.putIfAbsent(location, location);
+        if (stored != null)
+            return stored;
+        campusGraph.addNode(location);
+        return location;
+    }
+
+    // Queries hold the read lock of walkwayLock while they search campusGraph, and walkway
+    // changes hold its write lock. changedCosts holds, by start and then end, the edge costs
+    // each changed walkway had when loaded.
+    private static final ReentrantReadWriteLock walkwayLock = new ReentrantReadWriteLock();
+    private static final Map<Point, Map<Point, List<Double>>> changedCosts = new HashMap<>();
+
+    /**
+     * @return the result of query, computed while no walkway is being changed
+     */
+    private static <R> R reading(Supplier<R> query) {
+        walkwayLock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            walkwayLock.readLock().unlock();
+        }
+    }
+
+    // Each search structure is held by an Engine, which queries read without locking. A change
+    // that makes one wrong discards it, and it is rebuilt on rebuilder from a copy of
+    // campusGraph, published only if no walkway changed during the build. walkwayVersion counts
+    // walkway changes, and is only changed under the write lock.
+    private static long walkwayVersion = 0;
+    private static final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "campus-map-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Represents a search structure over campusGraph which is built once and may later be
+     * discarded by a walkway change and rebuilt in the background. Neither queries nor walkway
+     * changes wait for a rebuild: until it is done, get() returns null and queries use
+     * Dijkstra search instead.
+     */
+    private static final class Engine<E> {
+        // RI: build, over, rebuilding != null
+        // AF(this) = the structure current, or none if current == null, with a background
+        //            rebuild queued or running iff rebuilding
+
+        private final Function<Graph<Point, Double>, E> build;
+        private final UnaryOperator<E> over;
+        private volatile E current;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+        /**
+         * @param build makes the structure from a copy of campusGraph
+         * @param over makes a structure built over a copy of campusGraph search campusGraph
+         */
+        Engine(Function<Graph<Point, Double>, E> build, UnaryOperator<E> over) {
+            this.build = build;
+            this.over = over;
+        }
+
+        /**
+         * @return the structure, or null if it is being rebuilt, in which case a rebuild is
+         * started if none is running
+         */
+        E get() {
+            E engine = current;
+            if (engine == null) rebuildLater();
+            return engine;
+        }
+
+        /**
+         * @return the structure, or null if it has not been built or was discarded, without
+         * starting a rebuild
+         */
+        E peek() {
+            return current;
+        }
+
+        /**
+         * @return the structure, building it first on this thread if needed
+         * @spec.requires the caller does not hold walkwayLock
+         */
+        E await() {
+            E engine = current;
+            return engine != null ? engine : rebuild();
+        }
+
+        /**
+         * Drops the structure, and starts rebuilding it if it had been built.
+         * @spec.requires the caller holds the write lock of walkwayLock
+         */
+        void discard() {
+            if (current == null) return;
+            current = null;
+            rebuildLater();
+        }
+
+        private void rebuildLater() {
+            if (!rebuilding.compareAndSet(false, true)) return;
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+                // a discard just before the flag was cleared would not have started a rebuild
+                if (current == null) rebuildLater();
+            });
+        }
+
+        /**
+         * Builds the structure from copies of campusGraph until no walkway changes during a
+         * build, and publishes it.
+         * @return the structure
+         */
+        private synchronized E rebuild() {
+            while (current == null) {
+                long version;
+                Graph<Point, Double> copy = new Graph<>();
+                walkwayLock.readLock().lock();
+                try {
+                    version = walkwayVersion;
+                    for (Point node : campusGraph.listNodes()) {
+                        copy.addNode(node);
+                    }
+                    for (Point node : campusGraph.listNodes()) {
+                        for (Graph.Edge<Point, Double> edge : campusGraph.viewChildren(node)) {
+                            copy.addEdge(node, edge.getdstName(), edge.getLabel());
+                        }
+                    }
+                } finally {
+                    walkwayLock.readLock().unlock();
+                }
+
+                E built = build.apply(copy);
+                walkwayLock.readLock().lock();
+                try {
+                    if (version == walkwayVersion)
+                        current = over.apply(built);
+                } finally {
+                    walkwayLock.readLock().unlock();
+                }
+            }
+            return current;
+        }
+    }
+
+    private static final Engine<BidirectionalDijkstra<Point>> bidirectional =
+            new Engine<>(BidirectionalDijkstra::new, search -> search);
+    private static final Engine<ContractionHierarchy<Point>> hierarchy =
+            new Engine<>(ContractionHierarchy::new, search -> search);
+    private static final Engine<RouteTable<Point>> routeTable =
+            new Engine<>(copy -> new RouteTable<>(copy, buildingCor.values()), table -> table.over(campusGraph));
+
+    /**
+     * Number of landmarks used by ALT search unless another count is given.
+     */
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private static final Map<Integer, Engine<Landmarks<Point>>> landmarks = new ConcurrentHashMap<>();
+
+    /**
+     * @param count the number of landmarks to choose
+     * @return the ALT search over campusGraph with count landmarks
+     */
+    private static Engine<Landmarks<Point>> landmarks(int count) {
+        return landmarks.computeIfAbsent(count, k -> new Engine<>(
+                copy -> new Landmarks<>(copy, Landmarks.planarLandmarks(copy, k)),
+                search -> search.over(campusGraph)));
+    }
+
+    private final SearchMode mode;
+    private final int landmarkCount;
+    private final SearchMetrics metrics = new SearchMetrics();
+    private volatile boolean metricsEnabled = false;
+
+    /**
+     * Creates a campus map which answers queries with Dijkstra search.
+     */
+    public CampusMap() {
+        this(SearchMode.DIJKSTRA);
+    }
+
+    /**
+     * Creates a campus map which answers queries with the given search algorithm.
+     * @param mode the search algorithm used by findShortestPath
+     * @spec.requires mode != null
+     */
+    public CampusMap(SearchMode mode) {
+        this(mode, DEFAULT_LANDMARKS);
+    }
+
+    /**
+     * Creates a campus map which answers queries with the given search algorithm, using
+     * landmarkCount landmarks if the algorithm is ALT.
+     * @param mode the search algorithm used by findShortestPath
+     * @param landmarkCount the number of landmarks for ALT search
+     * @throws IllegalArgumentException if landmarkCount &lt;= 0
+     * @spec.requires mode != null
+     */
+    public CampusMap(SearchMode mode, int landmarkCount) {
+        if (landmarkCount <= 0)
+            throw new IllegalArgumentException("landmarkCount must be positive");
+        this.mode = mode;
+        this.landmarkCount = landmarkCount;
+        if (mode == SearchMode.BIDIRECTIONAL)
+            bidirectional.await();
+        if (mode == SearchMode.CONTRACTION_HIERARCHY)
+            hierarchy.await();
+        if (mode == SearchMode.ALT)
+            landmarks(landmarkCount).await();
+        if (mode == SearchMode.ROUTE_TABLE)
+            routeTable.await();
+        if (DEBUG) checkRep();
     }
 
     // shortName and longName for buildings are stored in hashMap buildingName.
     // shortName and coordinate for buildings are stored in hashMap buildingCor.
-    // every path's start and end points with their cost are stored in Graph campusGraph
+    // every path's start and end points with their cost are stored in Graph campusGraph,
+    // less closed walkways and with changed costs, whose loaded costs are in changedCosts.
+    // the short names of the buildings at each location are stored in hashMap buildingsAt.
+    // locationIndex indexes the nodes of campusGraph, and buildingIndex the keys of buildingsAt.
     //
-    // RI: buildingName, buildingCor, campusGraph != null
+    // RI: buildingName, buildingCor, campusGraph, buildingsAt, locationIndex, buildingIndex,
+    //     mode, metrics != null, landmarkCount > 0
     // AF(this) = short name for buildings = {buildingName.keySet()}
     //            long name for buildings = {buildingName.values()}
     //            possible paths in campus = {all Edges in campusGraph}
+    //            search algorithm for shortest paths = mode
+    //            number of landmarks for ALT search = landmarkCount
+    //            work done by recorded queries = metrics, recording iff metricsEnabled
+
+    /**
+     * Turns recording of per-query search metrics by findShortestPath(start, end) on or off.
+     * While off, which is the default, queries allocate nothing for metrics.
+     * @param enabled whether to record metrics
+     * @spec.modifies this
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (DEBUG) checkRep();
+        metricsEnabled = enabled;
+    }
+
+    /**
+     * @return true if findShortestPath(start, end) records its queries in getMetrics()
+     */
+    public boolean isMetricsEnabled() {
+        if (DEBUG) checkRep();
+        return metricsEnabled;
+    }
+
+    /**
+     * @return histograms of the work done by the queries recorded while metrics were enabled
+     */
+    public SearchMetrics getMetrics() {
+        if (DEBUG) checkRep();
+        return metrics;
+    }
+
+    /**
+     * @return the time taken to load the campus data and build the graph and indices over it,
+     * in nanoseconds
+     */
+    public long getLoadNanos() {
+        if (DEBUG) checkRep();
+        return loadNanos;
+    }
+
+    /**
+     * @return true if every path between buildings can be walked in reverse at the same cost,
+     * so the shortest path from b to a is the reverse of the shortest path from a to b
+     */
+    public boolean isSymmetric() {
+        if (DEBUG) checkRep();
+        return symmetric;
+    }
 
     /**
      * @param shortName The short name of a building to query.
@@ -137,17 +459,486 @@ public class CampusMap implements ModelAPI {
      */
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        if (!metricsEnabled)
+            return findShortestPath(startShortName, endShortName, null);
+
+        SearchStats stats = new SearchStats();
+        Path<Point> path = findShortestPath(startShortName, endShortName, stats);
+        metrics.record(stats);
+        return path;
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, and adds the
+     * work done by the search to stats.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param stats          counters to add to, or null to skip counting
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted
+     *                                  during the search.
+     * @spec.modifies stats
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchStats stats) {
         if (DEBUG) checkRep();
         try{
             Point srcPoint = buildingCor.get(startShortName);
             Point dstPoint = buildingCor.get(endShortName);
 
-            return Dijkstra.findPath(campusGraph, srcPoint, dstPoint);
+            return reading(() -> route(srcPoint, dstPoint, stats));
+        } catch (CancellationException e){
+            // the caller gave up on this search, which is not a problem with the arguments
+            throw e;
         } catch (Exception e){
             throw new IllegalArgumentException("Invalid arguments");
         }
     }
 
+    /**
+     * Finds the shortest paths, by distance, between each of the provided pairs of buildings.
+     * Every name is checked once up front. Repeated pairs are only searched once, and the
+     * searches run in parallel. In DIJKSTRA mode, pairs sharing a start building share one
+     * search in the searching thread's workspace, which stops when all of their end buildings
+     * are settled.
+     *
+     * @param pairs The short names of the start and end building of each path.
+     * @return The path for each pair, in the order of {@code pairs}, with {@literal null} for
+     * pairs that have no path.
+     * @throws IllegalArgumentException if any name is {@literal null} or not a valid short name
+     *                                  of a building in this campus map.
+     */
+    @Override
+    public List<Path<Point>> findShortestPaths(List<Map.Entry<String, String>> pairs) {
+        if (DEBUG) checkRep();
+
+        // distinct end locations for each distinct start location
+        Map<Point, Set<Point>> ends = new HashMap<>();
+        for (Map.Entry<String, String> pair : pairs) {
+            Point src = locationForShort(pair.getKey());
+            Point dst = locationForShort(pair.getValue());
+            ends.computeIfAbsent(src, k -> new HashSet<>()).add(dst);
+        }
+
+        // the parallel searches run under this thread's read lock, as taking it again on another
+        // thread could wait behind a walkway change which is waiting for this thread
+        Map<Point, Map<Point, Path<Point>>> found = new ConcurrentHashMap<>();
+        reading(() -> {
+            ends.entrySet().parallelStream().forEach(entry -> {
+                Point src = entry.getKey();
+                Map<Point, Path<Point>> paths;
+                if (mode == SearchMode.DIJKSTRA) {
+                    paths = Dijkstra.findPaths(campusGraph, src, entry.getValue());
+                } else {
+                    paths = new HashMap<>();
+                    for (Point dst : entry.getValue()) {
+                        paths.put(dst, route(src, dst, null));
+                    }
+                }
+                found.put(src, paths);
+            });
+            return null;
+        });
+
+        List<Path<Point>> ret = new ArrayList<>(pairs.size());
+        for (Map.Entry<String, String> pair : pairs) {
+            ret.add(found.get(buildingCor.get(pair.getKey())).get(buildingCor.get(pair.getValue())));
+        }
+        return ret;
+    }
+
+    /**
+     * @return a shortest path from srcPoint to dstPoint found with this map's search mode, or
+     * null if none exists
+     */
+    private Path<Point> route(Point srcPoint, Point dstPoint, SearchStats stats) {
+        // a structure being rebuilt after a walkway change is null, and Dijkstra answers instead
+        switch (mode) {
+            case ASTAR:
+                return AStar.findPath(campusGraph, srcPoint, dstPoint, heuristicScale, stats);
+            case BIDIRECTIONAL:
+                BidirectionalDijkstra<Point> search = bidirectional.get();
+                if (search == null) break;
+                return search.findPath(srcPoint, dstPoint, stats);
+            case CONTRACTION_HIERARCHY:
+                ContractionHierarchy<Point> contracted = hierarchy.get();
+                if (contracted == null) break;
+                return contracted.findPath(srcPoint, dstPoint, stats);
+            case ALT:
+                Landmarks<Point> alt = landmarks(landmarkCount).get();
+                if (alt == null) break;
+                return alt.findPath(srcPoint, dstPoint, stats);
+            case ROUTE_TABLE:
+                // the table only holds routes between buildings
+                if (!buildingsAt.containsKey(srcPoint) || !buildingsAt.containsKey(dstPoint))
+                    break;
+                RouteTable<Point> table = routeTable.get();
+                if (table == null) break;
+                if (stats != null) stats.queryStarted();
+                try {
+                    return table.findPath(srcPoint, dstPoint);
+                } finally {
+                    if (stats != null) stats.queryFinished();
+                }
+            default:
+                break;
+        }
+        return Dijkstra.findPath(campusGraph, srcPoint, dstPoint, stats);
+    }
+
+    /**
+     * @param shortName The short name of a building to look up.
+     * @return The location of the building corresponding to the provided short name.
+     * @throws IllegalArgumentException if the short name provided does not exist.
+     */
+    @Override
+    public Point locationForShort(String shortName) {
+        if (DEBUG) checkRep();
+        if (!shortNameExists(shortName))
+            throw new IllegalArgumentException("shortName does not exist");
+        return buildingCor.get(shortName);
+    }
+
+    /**
+     * Finds the shortest paths, by distance, from the provided building to every reachable
+     * location with a single Dijkstra search, whatever the search mode of this map.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @return The shortest path tree rooted at {@code startShortName}'s location.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a
+     *                                  valid short name of a building in this campus map.
+     */
+    @Override
+    public ShortestPathTree<Point> shortestPathTree(String startShortName) {
+        if (DEBUG) checkRep();
+        Point start = locationForShort(startShortName);
+        return reading(() -> Dijkstra.shortestPathTree(campusGraph, start));
+    }
+
+    /**
+     * Finds the shortest distance from every source building to every target building, running
+     * one search per source in parallel.
+     *
+     * @param startShortNames The short names of the buildings at the beginning of the paths.
+     * @param endShortNames   The short names of the buildings at the end of the paths.
+     * @return A matrix whose entry [i][j] is the length of the shortest path from
+     * {@code startShortNames.get(i)} to {@code endShortNames.get(j)}, or infinity if none exists.
+     * @throws IllegalArgumentException if any name is {@literal null} or not a valid short name
+     *                                  of a building in this campus map.
+     */
+    public double[][] distanceMatrix(List<String> startShortNames, List<String> endShortNames) {
+        if (DEBUG) checkRep();
+        List<Point> sources = new ArrayList<>();
+        for (String name : startShortNames) {
+            sources.add(locationForShort(name));
+        }
+        List<Point> targets = new ArrayList<>();
+        for (String name : endShortNames) {
+            targets.add(locationForShort(name));
+        }
+        return reading(() -> Dijkstra.distanceMatrix(campusGraph, sources, targets));
+    }
+
+    /**
+     * Finds every location within the given walking distance of the provided building.
+     *
+     * @param startShortName The short name of the building to walk from.
+     * @param radius         The largest walking distance to include.
+     * @return The walking distance to every location at most {@code radius} from
+     * {@code startShortName}, in order of increasing distance.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a
+     *                                  valid short name of a building in this campus map, or
+     *                                  {@code radius} is negative or NaN.
+     */
+    public Map<Point, Double> reachableWithin(String startShortName, double radius) {
+        if (DEBUG) checkRep();
+        Point start = locationForShort(startShortName);
+        return reading(() -> Dijkstra.withinRadius(campusGraph, start, radius));
+    }
+
+    /**
+     * Finds every building within the given walking distance of the provided building.
+     *
+     * @param startShortName The short name of the building to walk from.
+     * @param radius         The largest walking distance to include.
+     * @return The walking distance to every building at most {@code radius} from
+     * {@code startShortName}, by short name, in order of increasing distance.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a
+     *                                  valid short name of a building in this campus map, or
+     *                                  {@code radius} is negative or NaN.
+     */
+    public Map<String, Double> buildingsWithin(String startShortName, double radius) {
+        return buildingsWithin(reachableWithin(startShortName, radius));
+    }
+
+    /**
+     * Finds the buildings among locations already found by reachableWithin, so that a caller
+     * which needs both does not search twice.
+     *
+     * @param reached The walking distance to each location, as returned by reachableWithin.
+     * @return The walking distance to every building at one of the locations of
+     * {@code reached}, by short name, in the order of {@code reached}.
+     * @spec.requires reached != null
+     */
+    public Map<String, Double> buildingsWithin(Map<Point, Double> reached) {
+        if (DEBUG) checkRep();
+        Map<String, Double> ret = new LinkedHashMap<>();
+        for (Map.Entry<Point, Double> location : reached.entrySet()) {
+            for (String name : buildingsAt.getOrDefault(location.getKey(), List.of())) {
+                ret.put(name, location.getValue());
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @param x The x coordinate of a location on the map.
+     * @param y The y coordinate of a location on the map.
+     * @return The location on a path of this campus map closest to (x, y).
+     */
+    public Point nearestLocation(double x, double y) {
+        if (DEBUG) checkRep();
+        return locationIndex.nearest(x, y);
+    }
+
+    /**
+     * @param x The x coordinate of a location on the map.
+     * @param y The y coordinate of a location on the map.
+     * @param k The number of buildings to find.
+     * @return The short names of the min(k, number of buildings) buildings closest to (x, y),
+     * closest first.
+     * @throws IllegalArgumentException if {@code k} is negative.
+     */
+    public List<String> nearestBuildings(double x, double y, int k) {
+        if (DEBUG) checkRep();
+        List<String> ret = new ArrayList<>();
+        for (Point location : buildingIndex.nearest(x, y, k)) {
+            for (String name : buildingsAt.get(location)) {
+                if (ret.size() < k) ret.add(name);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Finds the shortest path, by distance, from the location on a path closest to (x, y) to
+     * the provided building.
+     *
+     * @param x            The x coordinate of the location to start from.
+     * @param y            The y coordinate of the location to start from.
+     * @param endShortName The short name of the building at the end of this path.
+     * @return A path from {@code nearestLocation(x, y)} to {@code endShortName}, or
+     * {@literal null} if none exists.
+     * @throws IllegalArgumentException if {@code endShortName} is {@literal null} or not a valid
+     *                                  short name of a building in this campus map.
+     */
+    public Path<Point> findShortestPathFrom(double x, double y, String endShortName) {
+        if (DEBUG) checkRep();
+        Point dstPoint = locationForShort(endShortName);
+        Point srcPoint = nearestLocation(x, y);
+        return reading(() -> route(srcPoint, dstPoint, null));
+    }
+
+    /**
+     * Closes the walkway between two locations in both directions, until it is reopened.
+     *
+     * @param a The location at one end of the walkway.
+     * @param b The location at the other end of the walkway.
+     * @throws IllegalArgumentException if there was no walkway between {@code a} and {@code b}
+     *                                  when the campus map was loaded.
+     * @spec.modifies every CampusMap
+     */
+    public void closeWalkway(Point a, Point b) {
+        if (DEBUG) checkRep();
+        changeWalkway(a, b, List.of());
+    }
+
+    /**
+     * Sets the cost of walking between two locations, in both directions, reopening the
+     * walkway if it was closed.
+     *
+     * @param a    The location at one end of the walkway.
+     * @param b    The location at the other end of the walkway.
+     * @param cost The new cost of the walkway.
+     * @return The cost the walkway had before, or infinity if it was closed.
+     * @throws IllegalArgumentException if there was no walkway between {@code a} and {@code b}
+     *                                  when the campus map was loaded, or {@code cost} is
+     *                                  negative, infinite or NaN.
+     * @spec.modifies every CampusMap
+     */
+    public double setWalkwayCost(Point a, Point b, double cost) {
+        if (DEBUG) checkRep();
+        if (!(cost >= 0) || Double.isInfinite(cost))
+            throw new IllegalArgumentException("cost must be non-negative and finite");
+        return changeWalkway(a, b, List.of(cost));
+    }
+
+    /**
+     * Reopens the walkway between two locations at the cost it had when the campus map was
+     * loaded.
+     *
+     * @param a The location at one end of the walkway.
+     * @param b The location at the other end of the walkway.
+     * @throws IllegalArgumentException if there was no walkway between {@code a} and {@code b}
+     *                                  when the campus map was loaded.
+     * @spec.modifies every CampusMap
+     */
+    public void reopenWalkway(Point a, Point b) {
+        if (DEBUG) checkRep();
+        changeWalkway(a, b, null);
+    }
+
+    /**
+     * Reopens every walkway at the cost it had when the campus map was loaded.
+     *
+     * @spec.modifies every CampusMap
+     */
+    public void reopenAllWalkways() {
+        if (DEBUG) checkRep();
+        walkwayLock.writeLock().lock();
+        try {
+            List<Map.Entry<Point, Map<Point, List<Double>>>> changed = new ArrayList<>();
+            for (Map.Entry<Point, Map<Point, List<Double>>> entry : changedCosts.entrySet()) {
+                changed.add(Map.entry(entry.getKey(), Map.copyOf(entry.getValue())));
+            }
+            for (Map.Entry<Point, Map<Point, List<Double>>> entry : changed) {
+                for (Map.Entry<Point, List<Double>> walkway : entry.getValue().entrySet()) {
+                    setCosts(entry.getKey(), walkway.getKey(), walkway.getValue());
+                }
+            }
+            heuristicScale = AStar.admissibleScale(campusGraph);
+        } finally {
+            walkwayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param a The location at one end of a walkway.
+     * @param b The location at the other end of the walkway.
+     * @return {@literal true} iff the walkway between {@code a} and {@code b} is closed.
+     * @throws IllegalArgumentException if there was no walkway between {@code a} and {@code b}
+     *                                  when the campus map was loaded.
+     */
+    public boolean isWalkwayClosed(Point a, Point b) {
+        if (DEBUG) checkRep();
+        return reading(() -> {
+            if (loadedCosts(a, b).isEmpty() && loadedCosts(b, a).isEmpty())
+                throw new IllegalArgumentException("no walkway between a and b");
+            return currentCosts(a, b).isEmpty() && currentCosts(b, a).isEmpty();
+        });
+    }
+
+    /**
+     * Gives every loaded edge between a and b, in either direction, the given costs.
+     * @param costs the new costs of each direction, or null for the costs when loaded
+     * @throws IllegalArgumentException if no edge joined a and b when loaded
+     * @return the lowest cost of an edge between a and b before, or infinity if there was none
+     */
+    private static double changeWalkway(Point a, Point b, List<Double> costs) {
+        walkwayLock.writeLock().lock();
+        try {
+            List<Double> forward = loadedCosts(a, b);
+            List<Double> backward = loadedCosts(b, a);
+            if (forward.isEmpty() && backward.isEmpty())
+                throw new IllegalArgumentException("no walkway between a and b");
+
+            double previous = Math.min(lowest(currentCosts(a, b)), lowest(currentCosts(b, a)));
+            if (!forward.isEmpty())
+                setCosts(a, b, costs == null ? forward : costs);
+            if (!backward.isEmpty())
+                setCosts(b, a, costs == null ? backward : costs);
+            heuristicScale = AStar.admissibleScale(campusGraph);
+            return previous;
+        } finally {
+            walkwayLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the edges from src to dst with edges of the given costs, and brings the search
+     * structures other than heuristicScale up to date.
+     * @spec.requires the caller holds the write lock, and src had an edge to dst when loaded
+     */
+    private static void setCosts(Point src, Point dst, List<Double> costs) {
+        List<Double> old = currentCosts(src, dst);
+        if (Set.copyOf(old).equals(Set.copyOf(costs))) return;
+
+        List<Double> loaded = loadedCosts(src, dst);
+        Map<Point, List<Double>> changedFromSrc = changedCosts.computeIfAbsent(src, k -> new HashMap<>());
+        if (Set.copyOf(loaded).equals(Set.copyOf(costs))) {
+            changedFromSrc.remove(dst);
+            if (changedFromSrc.isEmpty()) changedCosts.remove(src);
+        } else {
+            changedFromSrc.put(dst, loaded);
+        }
+
+        walkwayVersion++;
+        BidirectionalDijkstra<Point> search = bidirectional.peek();
+        for (double cost : old) {
+            campusGraph.removeEdge(src, dst, cost);
+            if (search != null) search.edgeRemoved(src, dst, cost);
+        }
+        for (double cost : Set.copyOf(costs)) {
+            campusGraph.addEdge(src, dst, cost);
+            if (search != null) search.edgeAdded(src, dst, cost);
+        }
+
+        // contraction depends on every cost, so the hierarchy is always rebuilt
+        hierarchy.discard();
+        double before = lowest(old);
+        double after = lowest(costs);
+        RouteTable<Point> table = routeTable.peek();
+        if (after < before) {
+            // routes may get shorter, which the landmark bounds and route table can't tell
+            for (Engine<Landmarks<Point>> alt : landmarks.values()) {
+                alt.discard();
+            }
+            routeTable.discard();
+        } else if (table != null) {
+            // landmark bounds stay admissible and consistent when costs only rise
+            table.edgeCostIncreased(src, dst);
+        }
+    }
+
+    /**
+     * @return the costs of the edges from src to dst in campusGraph
+     * @throws IllegalArgumentException if src is not a location of this campus map
+     */
+    private static List<Double> currentCosts(Point src, Point dst) {
+        if (src == null || !campusGraph.containsNode(src))
+            throw new IllegalArgumentException("not a location of this campus map");
+        List<Double> ret = new ArrayList<>();
+        for (Graph.Edge<Point, Double> edge : campusGraph.viewChildren(src)) {
+            if (edge.getdstName().equals(dst))
+                ret.add(edge.getLabel());
+        }
+        return ret;
+    }
+
+    /**
+     * @return the costs of the edges from src to dst when campusGraph was loaded
+     * @throws IllegalArgumentException if src is not a location of this campus map
+     */
+    private static List<Double> loadedCosts(Point src, Point dst) {
+        List<Double> changed = changedCosts.getOrDefault(src, Map.of()).get(dst);
+        return changed != null ? changed : currentCosts(src, dst);
+    }
+
+    /**
+     * @return the smallest of costs, or infinity if costs is empty
+     */
+    private static double lowest(List<Double> costs) {
+        double ret = Double.POSITIVE_INFINITY;
+        for (double cost : costs) {
+            ret = Math.min(ret, cost);
+        }
+        return ret;
+    }
+
     private static boolean DEBUG = false;
     private void checkRep() {
         // Assert buildingName is not a null
@@ -158,6 +949,12 @@ public class CampusMap implements ModelAPI {
 
         // Assert buildingName is not a null
         assert buildingName != null : "buildingName is null!";
+
+        // Assert mode is not a null
+        assert mode != null : "mode is null!";
+
+        // Assert landmarkCount is positive
+        assert landmarkCount > 0 : "landmarkCount is not positive!";
     }
 
 }
@@ -0,0 +1,459 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * Answers shortest path queries over a fixed graph using Contraction Hierarchies.
+ * <p>
+ * The constructor ranks every node by importance and contracts them from least to most
+ * important. Contracting a node removes it from the remaining graph, adding a shortcut edge
+ * u -&gt; w whenever the only shortest path from u to w went through it. A query then runs a
+ * bidirectional Dijkstra search that only ever moves to more important nodes. Such a search
+ * settles a few hundred nodes even on large graphs. Shortcuts remember the two edges they
+ * replace, so the result unpacks back into the original edges. Like Dijkstra, a query stops
+ * with a CancellationException if the calling thread is interrupted.
+ * <p>
+ * The graph is copied by the constructor, so later changes to it are not seen by this.
+ */
+public class ContractionHierarchy<T> {
+
+    /**
+     * Maximum number of nodes a witness search settles before giving up and adding the shortcut.
+     * A smaller limit makes preprocessing faster but may add unneeded (still correct) shortcuts.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+
+    // Nodes have dense ids 0 .. nodes.size() - 1, and rank[id] is the position of the node in
+    // the contraction order. Every edge is an arc: original edges (keeping only the cheapest
+    // between two nodes) and shortcuts, where shortcut i replaces arcs arcFirst[i], then
+    // arcSecond[i]. For an original arc, arcFirst[i] == arcSecond[i] == -1.
+    // up lists, for each node, the ids of arcs leaving it to a higher ranked node, as the slice
+    // upArc[upStart[id] .. upStart[id + 1]). down lists the arcs entering each node from a higher
+    // ranked node the same way.
+    //
+    // RI: ids.get(nodes.get(i)) == i, rank is a permutation of 0 .. nodes.size() - 1,
+    //     arcWeight[i] >= 0, arcWeight of a shortcut is the sum of the weights of its two arcs
+    // AF(this) = a shortest path finder over the graph whose nodes are nodes and whose edges
+    //            are the original arcs
+
+    private final Map<T, Integer> ids;
+    private final List<T> nodes;
+    private final int[] rank;
+
+    private int arcCount;
+    private int[] arcFrom;
+    private int[] arcTo;
+    private double[] arcWeight;
+    private int[] arcFirst;
+    private int[] arcSecond;
+
+    private final int[] upStart;
+    private final int[] upArc;
+    private final int[] downStart;
+    private final int[] downArc;
+
+    /**
+     * Creates a contraction hierarchy over graph.
+     * @param graph a graph with any type of node label and non-negative Double type edge label
+     * @spec.requires graph != null
+     */
+    public ContractionHierarchy(GraphView<T, Double> graph) {
+        nodes = graph.listNodes();
+        int n = nodes.size();
+        ids = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids.put(nodes.get(i), i);
+        }
+
+        arcFrom = new int[16];
+        arcTo = new int[16];
+        arcWeight = new double[16];
+        arcFirst = new int[16];
+        arcSecond = new int[16];
+        arcCount = 0;
+
+        Contractor contractor = new Contractor(graph);
+        rank = contractor.contract();
+
+        // arcs replaced by cheaper shortcuts are only kept for unpacking
+        List<Integer> live = contractor.liveArcs();
+        upStart = new int[n + 1];
+        downStart = new int[n + 1];
+        for (int i : live) {
+            if (rank[arcTo[i]] > rank[arcFrom[i]])
+                upStart[arcFrom[i] + 1]++;
+            else
+                downStart[arcTo[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            upStart[i + 1] += upStart[i];
+            downStart[i + 1] += downStart[i];
+        }
+        upArc = new int[upStart[n]];
+        downArc = new int[downStart[n]];
+        int[] upFill = Arrays.copyOf(upStart, n);
+        int[] downFill = Arrays.copyOf(downStart, n);
+        for (int i : live) {
+            if (rank[arcTo[i]] > rank[arcFrom[i]])
+                upArc[upFill[arcFrom[i]]++] = i;
+            else
+                downArc[downFill[arcTo[i]]++] = i;
+        }
+    }
+
+    /**
+     * @return the number of shortcut edges added by preprocessing
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for (int i = 0; i < arcCount; i++) {
+            if (arcFirst[i] >= 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @throws IllegalArgumentException when the graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires srcNode, dstNode not null
+     */
+    public Path<T> findPath(T srcNode, T dstNode) {
+        return findPath(srcNode, dstNode, null);
+    }
+
+    /**
+     * Same as findPath(srcNode, dstNode), and also adds the work done to stats.
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when the graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires srcNode, dstNode not null
+     * @spec.modifies stats
+     */
+    public Path<T> findPath(T srcNode, T dstNode, SearchStats stats) {
+        Integer src = srcNode == null ? null : ids.get(srcNode);
+        Integer dst = dstNode == null ? null : ids.get(dstNode);
+        if (src == null || dst == null) {
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+
+        if (stats != null) stats.queryStarted();
+        try {
+            return search(srcNode, src, dst, stats);
+        } finally {
+            if (stats != null) stats.queryFinished();
+        }
+    }
+
+    // the backward search's workspace for each thread, the forward one being Dijkstra's
+    private static final ThreadLocal<SearchWorkspace> BACKWARD = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * Does the search of findPath from node id src to node id dst, where srcNode has id src.
+     * Each direction keeps its state in a per-thread workspace whose parent of a node is the
+     * id of the arc the node was reached by, so a query costs time in the size of its search
+     * space only, not in the size of the graph.
+     */
+    private Path<T> search(T srcNode, int src, int dst, SearchStats stats) {
+        int n = nodes.size();
+        SearchWorkspace fwd = Dijkstra.workspace();
+        SearchWorkspace bwd = BACKWARD.get();
+        fwd.reset(n);
+        bwd.reset(n);
+
+        fwd.reach(src);
+        fwd.update(src, 0, -1, 0);
+        fwd.heap().insertOrDecrease(src, 0);
+        bwd.reach(dst);
+        bwd.update(dst, 0, -1, 0);
+        bwd.heap().insertOrDecrease(dst, 0);
+
+        // Both searches only move up in rank, so they cannot stop when they first meet: the
+        // best meeting node is known once neither frontier has anything closer than best.
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while (true) {
+            boolean fwdDone = fwd.heap().isEmpty() || fwd.heap().peekPriority() >= best;
+            boolean bwdDone = bwd.heap().isEmpty() || bwd.heap().peekPriority() >= best;
+            if (fwdDone && bwdDone) break;
+
+            boolean forward = bwdDone || (!fwdDone && fwd.heap().peekPriority() <= bwd.heap().peekPriority());
+            SearchWorkspace side = forward ? fwd : bwd;
+            SearchWorkspace other = forward ? bwd : fwd;
+            int[] start = forward ? upStart : downStart;
+            int[] arcs = forward ? upArc : downArc;
+            int[] ends = forward ? arcTo : arcFrom;
+
+            int u = side.heap().removeMin();
+            side.settle(u);
+            if (stats != null) {
+                stats.heapPopped();
+                stats.nodeSettled();
+            }
+            Dijkstra.checkInterrupted();
+            if (other.isReached(u) && side.dist(u) + other.dist(u) < best) {
+                best = side.dist(u) + other.dist(u);
+                meet = u;
+            }
+
+            for (int i = start[u]; i < start[u + 1]; i++) {
+                int arc = arcs[i];
+                int v = ends[arc];
+                double newDist = side.dist(u) + arcWeight[arc];
+                if (stats != null) stats.edgeRelaxed();
+                if (!side.isReached(v)) {
+                    side.reach(v);
+                }
+                if (newDist < side.dist(v)) {
+                    side.update(v, newDist, arc, arcWeight[arc]);
+                    side.heap().insertOrDecrease(v, newDist);
+                    if (stats != null) stats.heapPushed(fwd.heap().size() + bwd.heap().size());
+                }
+            }
+        }
+
+        if (meet < 0) return null;
+
+        // arcs from src up to meet, listed backwards from meet, then from meet down to dst
+        int steps = 0;
+        for (int x = meet; fwd.parent(x) != -1; x = arcFrom[fwd.parent(x)]) {
+            steps++;
+        }
+        int[] up = fwd.trail(steps);
+        int x = meet;
+        for (int i = steps - 1; i >= 0; i--) {
+            up[i] = fwd.parent(x);
+            x = arcFrom[up[i]];
+        }
+
+        Path<T> path = new Path<>(srcNode);
+        for (int i = 0; i < steps; i++) {
+            path = unpack(path, up[i], fwd);
+        }
+        for (x = meet; bwd.parent(x) != -1; x = arcTo[bwd.parent(x)]) {
+            path = unpack(path, bwd.parent(x), fwd);
+        }
+        return path;
+    }
+
+    /**
+     * Extends path by the original edges that arc stands for, keeping the arcs still to unpack
+     * on the stack of workspace.
+     */
+    private Path<T> unpack(Path<T> path, int arc, SearchWorkspace workspace) {
+        int[] stack = workspace.stack(1);
+        int size = 0;
+        stack[size++] = arc;
+        while (size > 0) {
+            int a = stack[--size];
+            if (arcFirst[a] < 0) {
+                path = path.extend(nodes.get(arcTo[a]), arcWeight[a]);
+            } else {
+                stack = workspace.stack(size + 2);
+                stack[size++] = arcSecond[a];
+                stack[size++] = arcFirst[a];
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Adds a new arc and returns its id.
+     */
+    private int addArc(int from, int to, double weight, int first, int second) {
+        if (arcCount == arcFrom.length) {
+            int length = 2 * arcCount;
+            arcFrom = Arrays.copyOf(arcFrom, length);
+            arcTo = Arrays.copyOf(arcTo, length);
+            arcWeight = Arrays.copyOf(arcWeight, length);
+            arcFirst = Arrays.copyOf(arcFirst, length);
+            arcSecond = Arrays.copyOf(arcSecond, length);
+        }
+        arcFrom[arcCount] = from;
+        arcTo[arcCount] = to;
+        arcWeight[arcCount] = weight;
+        arcFirst[arcCount] = first;
+        arcSecond[arcCount] = second;
+        return arcCount++;
+    }
+
+    /**
+     * Holds the mutable state used while contracting the graph. out.get(u) maps each node w
+     * to the id of the cheapest arc u -&gt; w, and in.get(w) maps each u to the same arc.
+     */
+    private class Contractor {
+
+        private final List<Map<Integer, Integer>> out;
+        private final List<Map<Integer, Integer>> in;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+
+        // witness search state, reset through touched after every search
+        private final double[] witnessDist;
+        private final List<Integer> touched;
+        private final IndexedMinHeap witnessHeap;
+
+        Contractor(GraphView<T, Double> graph) {
+            int n = nodes.size();
+            out = new ArrayList<>(n);
+            in = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                out.add(new HashMap<>());
+                in.add(new HashMap<>());
+            }
+            for (int u = 0; u < n; u++) {
+                for (Graph.Edge<T, Double> edge : graph.viewChildren(nodes.get(u))) {
+                    int w = ids.get(edge.getdstName());
+                    if (w != u) {
+                        addOrImprove(u, w, edge.getLabel(), -1, -1);
+                    }
+                }
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            witnessDist = new double[n];
+            Arrays.fill(witnessDist, Double.POSITIVE_INFINITY);
+            touched = new ArrayList<>();
+            witnessHeap = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Contracts every node, least important first.
+         * @return the rank of each node in contraction order
+         */
+        int[] contract() {
+            int n = nodes.size();
+            int[] order = new int[n];
+            IndexedMinHeap queue = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                queue.insertOrDecrease(v, priority(v));
+            }
+
+            int next = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.removeMin();
+                // priorities go stale as neighbors are contracted, so recompute lazily and put
+                // v back if it is no longer the least important
+                double p = priority(v);
+                if (!queue.isEmpty() && p > queue.peekPriority()) {
+                    queue.insertOrDecrease(v, p);
+                    continue;
+                }
+                shortcuts(v, true);
+                contracted[v] = true;
+                order[v] = next++;
+                for (int w : out.get(v).keySet()) contractedNeighbors[w]++;
+                for (int u : in.get(v).keySet()) contractedNeighbors[u]++;
+            }
+            return order;
+        }
+
+        /**
+         * @return the ids of the cheapest arc between each pair of connected nodes
+         */
+        List<Integer> liveArcs() {
+            List<Integer> live = new ArrayList<>();
+            for (Map<Integer, Integer> arcs : out) {
+                live.addAll(arcs.values());
+            }
+            return live;
+        }
+
+        /**
+         * @return how important v is to keep: shortcuts it needs minus edges it removes, plus
+         * a term which spreads contraction evenly across the graph
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for (int w : out.get(v).keySet()) if (!contracted[w]) removed++;
+            for (int u : in.get(v).keySet()) if (!contracted[u]) removed++;
+            return shortcuts(v, false) - removed + contractedNeighbors[v];
+        }
+
+        /**
+         * Finds the shortcuts needed to contract v, adding them if add is true.
+         * @return the number of shortcuts needed
+         */
+        private int shortcuts(int v, boolean add) {
+            int count = 0;
+            for (Map.Entry<Integer, Integer> inEntry : in.get(v).entrySet()) {
+                int u = inEntry.getKey();
+                if (contracted[u]) continue;
+                int inArc = inEntry.getValue();
+
+                double maxDist = 0;
+                for (Map.Entry<Integer, Integer> outEntry : out.get(v).entrySet()) {
+                    if (!contracted[outEntry.getKey()] && outEntry.getKey() != u)
+                        maxDist = Math.max(maxDist, arcWeight[inArc] + arcWeight[outEntry.getValue()]);
+                }
+                witnessSearch(u, v, maxDist);
+
+                for (Map.Entry<Integer, Integer> outEntry : out.get(v).entrySet()) {
+                    int w = outEntry.getKey();
+                    if (contracted[w] || w == u) continue;
+                    int outArc = outEntry.getValue();
+                    double viaV = arcWeight[inArc] + arcWeight[outArc];
+                    if (witnessDist[w] > viaV) {
+                        count++;
+                        if (add) addOrImprove(u, w, viaV, inArc, outArc);
+                    }
+                }
+                clearWitness();
+            }
+            return count;
+        }
+
+        /**
+         * Runs Dijkstra from u over uncontracted nodes other than v, up to distance maxDist,
+         * leaving the distances found in witnessDist.
+         */
+        private void witnessSearch(int u, int v, double maxDist) {
+            witnessDist[u] = 0;
+            touched.add(u);
+            witnessHeap.insertOrDecrease(u, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if (witnessHeap.peekPriority() > maxDist) break;
+                int x = witnessHeap.removeMin();
+                settled++;
+                for (Map.Entry<Integer, Integer> entry : out.get(x).entrySet()) {
+                    int y = entry.getKey();
+                    if (y == v || contracted[y]) continue;
+                    double d = witnessDist[x] + arcWeight[entry.getValue()];
+                    if (d < witnessDist[y]) {
+                        if (witnessDist[y] == Double.POSITIVE_INFINITY) touched.add(y);
+                        witnessDist[y] = d;
+                        witnessHeap.insertOrDecrease(y, d);
+                    }
+                }
+            }
+        }
+
+        private void clearWitness() {
+            for (int x : touched) {
+                witnessDist[x] = Double.POSITIVE_INFINITY;
+            }
+            touched.clear();
+            witnessHeap.clear();
+        }
+
+        /**
+         * Adds an arc from u to w, unless there already is one at most as cheap.
+         */
+        private void addOrImprove(int u, int w, double weight, int first, int second) {
+            Integer existing = out.get(u).get(w);
+            if (existing != null && arcWeight[existing] <= weight) return;
+            int arc = addArc(u, w, weight, first, second);
+            out.get(u).put(w, arc);
+            in.get(w).put(u, arc);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package pathfinder;
+
+import graph.FrozenGraph;
+import graph.Graph;
+import graph.GraphView;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is an util class which finds shortest paths from a single source with delta-stepping,
+ * a variant of Dijkstra's algorithm which relaxes many nodes at once, spread across the
+ * threads of a fork-join pool: the common pool, unless the caller gives one.
+ * <p>
+ * Nodes are kept in buckets of width delta by tentative distance. The nodes of the lowest
+ * bucket are expanded together in parallel, first along light edges (cost at most delta),
+ * which may refill the same bucket, and then once along heavy edges, which cannot. A small
+ * delta does little wasted work but has little parallelism per bucket; a large one the
+ * reverse. Distances are the same as Dijkstra's, though ties between equally short paths may
+ * be broken differently.
+ * <p>
+ * A Graph is read through its frozen snapshot (see GraphView.freeze), so repeated searches of
+ * an unchanged graph do not copy its edges again. Graphs which ask not to be frozen (see
+ * GraphView.freezeForSearch), such as versions of a PersistentGraph, are read through
+ * viewChildren, with nodes numbered in the order of listNodes.
+ * <p>
+ * Searches stop with a CancellationException if the calling thread is interrupted, like
+ * Dijkstra's.
+ */
+public class DeltaStepping {
+
+    /**
+     * The best path found so far to a node: its length, the dense id of the node before it,
+     * and the cost of the last edge. Replaced as a whole so that the three always agree.
+     */
+    private static final class Label {
+        final double dist;
+        final int parent;
+        final double cost;
+
+        Label(double dist, int parent, double cost) {
+            this.dist = dist;
+            this.parent = parent;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Runs delta-stepping from srcNode over every node reachable from it, with delta the mean
+     * edge cost of graph.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @throws IllegalArgumentException when graph doesn't contain srcNode
+     * @return the shortest path tree from srcNode to every node reachable from it
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative,
+     * graph is not changed during the call
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(GraphView<T, Double> graph, T srcNode){
+        return shortestPathTree(graph, srcNode, 0);
+    }
+
+    /**
+     * Runs delta-stepping with the given bucket width from srcNode over every node reachable
+     * from it.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param delta the width of each bucket, or 0 to use the mean edge cost of graph
+     * @throws IllegalArgumentException when graph doesn't contain srcNode, or delta is negative,
+     * infinite or NaN
+     * @return the shortest path tree from srcNode to every node reachable from it
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative,
+     * graph is not changed during the call
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(GraphView<T, Double> graph, T srcNode, double delta){
+        return shortestPathTree(graph, srcNode, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs delta-stepping with the given bucket width from srcNode over every node reachable
+     * from it, relaxing edges on the threads of pool.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param delta the width of each bucket, or 0 to use the mean edge cost of graph
+     * @param pool the pool to relax edges in, whose parallelism bounds the search's
+     * @throws IllegalArgumentException when graph doesn't contain srcNode, or delta is negative,
+     * infinite or NaN
+     * @return the shortest path tree from srcNode to every node reachable from it
+     * @spec.requires graph, srcNode, pool not null, all edge labels of graph are non-negative,
+     * graph is not changed during the call
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(GraphView<T, Double> graph, T srcNode, double delta,
+                                                           ForkJoinPool pool){
+        if (!graph.containsNode(srcNode)){
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+        if (!(delta >= 0) || delta == Double.POSITIVE_INFINITY){
+            throw new IllegalArgumentException("delta must be finite and non-negative");
+        }
+
+        Adjacency<T> adjacency = new Adjacency<>(graph);
+        int n = adjacency.nodeCount();
+        if (delta == 0) {
+            delta = adjacency.meanWeight();
+        }
+
+        Label[] labels = search(adjacency, adjacency.idOf(srcNode), delta, pool);
+
+        // copy the labels into a tree, linking parents once every reached node has an id
+        ShortestPathTree<T> tree = new ShortestPathTree<>(srcNode);
+        int[] treeId = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (labels[v] != null && labels[v].parent >= 0) treeId[v] = tree.add(adjacency.node(v));
+        }
+        tree.settle(0);
+        for (int v = 0; v < n; v++) {
+            Label label = labels[v];
+            if (label != null && label.parent >= 0) {
+                tree.update(treeId[v], label.dist, treeId[label.parent], label.cost);
+                tree.settle(treeId[v]);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Runs delta-stepping from the node with id src of graph, relaxing edges in pool.
+     * @return the final label of every node, or null for nodes not reachable from src
+     */
+    private static Label[] search(Adjacency<?> graph, int src, double delta, ForkJoinPool pool){
+        int n = graph.nodeCount();
+        AtomicReferenceArray<Label> labels = new AtomicReferenceArray<>(n);
+        labels.set(src, new Label(0, -1, 0));
+
+        // buckets by index, each a list of nodes which may be stale: a node is only expanded
+        // from the bucket its current distance falls in
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.put(0L, IntList.of(src));
+
+        // stamp[v] == phase marks v as already in the current frontier or removed set
+        int[] inFrontier = new int[n];
+        int[] inRemoved = new int[n];
+        int phase = 0;
+
+        while (!buckets.isEmpty()){
+            Map.Entry<Long, IntList> first = buckets.pollFirstEntry();
+            long bucket = first.getKey();
+            phase++;
+
+            IntList frontier = new IntList();
+            for (int i = 0; i < first.getValue().size(); i++) {
+                int v = first.getValue().get(i);
+                if (bucketOf(labels.get(v).dist, delta) == bucket && inFrontier[v] != phase) {
+                    inFrontier[v] = phase;
+                    frontier.add(v);
+                }
+            }
+
+            // light edges may put nodes back into this bucket, so repeat until it stays empty
+            IntList removed = new IntList();
+            while (frontier.size() > 0){
+                Dijkstra.checkInterrupted();
+                for (int i = 0; i < frontier.size(); i++) {
+                    int v = frontier.get(i);
+                    inFrontier[v] = 0;
+                    if (inRemoved[v] != phase) {
+                        inRemoved[v] = phase;
+                        removed.add(v);
+                    }
+                }
+                IntList improved = relax(frontier.toArray(), graph, labels, delta, true, pool);
+
+                frontier = new IntList();
+                for (int i = 0; i < improved.size(); i++) {
+                    int v = improved.get(i);
+                    long b = bucketOf(labels.get(v).dist, delta);
+                    if (b == bucket) {
+                        if (inFrontier[v] != phase) {
+                            inFrontier[v] = phase;
+                            frontier.add(v);
+                        }
+                    } else {
+                        buckets.computeIfAbsent(b, k -> new IntList()).add(v);
+                    }
+                }
+            }
+
+            // heavy edges all lead past this bucket, so one round settles them
+            IntList improved = relax(removed.toArray(), graph, labels, delta, false, pool);
+            for (int i = 0; i < improved.size(); i++) {
+                int v = improved.get(i);
+                buckets.computeIfAbsent(bucketOf(labels.get(v).dist, delta), k -> new IntList()).add(v);
+            }
+        }
+
+        Label[] ret = new Label[n];
+        for (int v = 0; v < n; v++) {
+            ret[v] = labels.get(v);
+        }
+        return ret;
+    }
+
+    /**
+     * Relaxes the light (cost at most delta) or heavy edges of every node of from, in parallel
+     * in pool once there are enough of them to be worth splitting.
+     * @return the nodes whose distance was lowered, with a node repeated if lowered repeatedly
+     */
+    private static IntList relax(int[] from, Adjacency<?> graph, AtomicReferenceArray<Label> labels,
+                                 double delta, boolean light, ForkJoinPool pool){
+        Relax<?> task = new Relax<>(from, 0, from.length, graph, labels, delta, light);
+        return from.length <= Relax.SPLIT ? task.compute() : pool.invoke(task);
+    }
+
+    /**
+     * Relaxes the light or heavy edges of the nodes from[lo .. hi-1], splitting the range in
+     * half for other threads of the pool while it is large.
+     */
+    private static final class Relax<T> extends RecursiveTask<IntList> {
+        // the number of nodes below which a task relaxes them itself
+        static final int SPLIT = 256;
+
+        private final int[] from;
+        private final int lo;
+        private final int hi;
+        private final Adjacency<T> graph;
+        private final AtomicReferenceArray<Label> labels;
+        private final double delta;
+        private final boolean light;
+
+        Relax(int[] from, int lo, int hi, Adjacency<T> graph, AtomicReferenceArray<Label> labels,
+              double delta, boolean light) {
+            this.from = from;
+            this.lo = lo;
+            this.hi = hi;
+            this.graph = graph;
+            this.labels = labels;
+            this.delta = delta;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (hi - lo > SPLIT) {
+                int mid = (lo + hi) >>> 1;
+                Relax<T> left = new Relax<>(from, lo, mid, graph, labels, delta, light);
+                left.fork();
+                IntList right = new Relax<>(from, mid, hi, graph, labels, delta, light).compute();
+                IntList improved = left.join();
+                improved.addAll(right);
+                return improved;
+            }
+
+            IntList improved = new IntList();
+            FrozenGraph<T, Double> frozen = graph.frozen;
+            for (int i = lo; i < hi; i++) {
+                int u = from[i];
+                double du = labels.get(u).dist;
+                if (frozen != null) {
+                    for (int e = frozen.edgeStart(u); e < frozen.edgeEnd(u); e++) {
+                        lower(u, du, frozen.target(e), frozen.weight(e), improved);
+                    }
+                } else {
+                    for (Graph.Edge<T, Double> edge : graph.live.viewChildren(graph.node(u))) {
+                        lower(u, du, graph.idOf(edge.getdstName()), edge.getLabel(), improved);
+                    }
+                }
+            }
+            return improved;
+        }
+
+        /**
+         * Lowers the distance of node v to du + w through an edge from u of cost w, if that is
+         * shorter and the edge is of the kind this task relaxes, adding v to improved if so.
+         */
+        private void lower(int u, double du, int v, double w, IntList improved) {
+            if ((w <= delta) != light) return;
+
+            double newDist = du + w;
+            Label current = labels.get(v);
+            while (current == null || newDist < current.dist) {
+                if (labels.compareAndSet(v, current, new Label(newDist, u, w))) {
+                    improved.add(v);
+                    return;
+                }
+                current = labels.get(v);
+            }
+        }
+    }
+
+    /**
+     * Represents a graph with its nodes numbered 0 .. nodeCount() - 1, read either through its
+     * frozen snapshot or, if it asks not to be frozen, through viewChildren.
+     */
+    private static final class Adjacency<T> {
+        final FrozenGraph<T, Double> frozen;    // null if the graph is read through live
+        final GraphView<T, Double> live;
+        private final List<T> nodes;
+        private final Map<T, Integer> ids;
+
+        Adjacency(GraphView<T, Double> graph) {
+            if (graph.freezeForSearch()) {
+                frozen = graph.freeze();
+                live = null;
+                nodes = null;
+                ids = null;
+            } else {
+                frozen = null;
+                live = graph;
+                nodes = graph.listNodes();
+                ids = new HashMap<>();
+                for (int i = 0; i < nodes.size(); i++) {
+                    ids.put(nodes.get(i), i);
+                }
+            }
+        }
+
+        int nodeCount() {
+            return frozen != null ? frozen.nodeCount() : nodes.size();
+        }
+
+        T node(int id) {
+            return frozen != null ? frozen.nodeAt(id) : nodes.get(id);
+        }
+
+        int idOf(T node) {
+            return frozen != null ? frozen.indexOf(node) : ids.get(node);
+        }
+
+        /**
+         * @return the mean edge cost, or 1 if there are no edges or they all cost 0
+         */
+        double meanWeight() {
+            double total = 0;
+            int count = 0;
+            if (frozen != null) {
+                for (int e = 0; e < frozen.edgeCount(); e++) total += frozen.weight(e);
+                count = frozen.edgeCount();
+            } else {
+                for (T node : nodes) {
+                    for (Graph.Edge<T, Double> edge : live.viewChildren(node)) {
+                        total += edge.getLabel();
+                        count++;
+                    }
+                }
+            }
+            return count == 0 || total == 0 ? 1 : total / count;
+        }
+    }
+
+    private static long bucketOf(double dist, double delta){
+        return (long) (dist / delta);
+    }
+
+    /**
+     * A growable list of ints, to avoid boxing every node of every bucket.
+     */
+    private static final class IntList {
+        private int[] elements = new int[4];
+        private int size;
+
+        static IntList of(int element) {
+            IntList ret = new IntList();
+            ret.add(element);
+            return ret;
+        }
+
+        void add(int element) {
+            if (size == elements.length) elements = Arrays.copyOf(elements, 2 * size);
+            elements[size++] = element;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > elements.length)
+                elements = Arrays.copyOf(elements, Math.max(2 * elements.length, size + other.size));
+            System.arraycopy(other.elements, 0, elements, size, other.size);
+            size += other.size;
+        }
+
+        int get(int i) {
+            return elements[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package pathfinder;
 
 import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
 import pathfinder.datastructures.Path;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
 
 /**
  * This is an util class which provides Dijkstra algorithm.
+ * Searches stop with a CancellationException if the calling thread is interrupted, so a
+ * search whose result is no longer wanted can be abandoned without finishing it.
+ * <p>
+ * findPath and withinRadius run on the calling thread's SearchWorkspace. A Graph is read
+ * through its frozen snapshot (see GraphView.freeze), which is only rebuilt by the first search
+ * after the graph changes; a graph which asks not to be frozen, such as a ConcurrentGraph under
+ * writers, is walked through viewChildren (see GraphView.freezeForSearch).
  */
 public class Dijkstra{
 
@@ -19,44 +31,454 @@ public class Dijkstra{
      * @return null if path from srcNode to dstNode doesn't exist else a list of shortest path from srcNode to dstNode and total costs
      * @spec.requires graph, srcNode, dstNode not null, Graph contains srcNode and a path from srcNode to dstNode.
      */
-    public static <T> Path<T> findPath(Graph<T, Double> graph, T srcNode, T dstNode){
+    public static <T> Path<T> findPath(GraphView<T, Double> graph, T srcNode, T dstNode){
+        return search(graph, srcNode, dstNode, null, null);
+    }
+
+    /**
+     * Same as findPath(graph, srcNode, dstNode), and also adds the work done to stats.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node for dijkstra algorithm
+     * @param dstNode destination node for dijkstra algorithm
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a list of shortest path from srcNode to dstNode and total costs
+     * @spec.requires graph, srcNode, dstNode not null, all edge labels of graph are non-negative
+     * @spec.modifies stats
+     */
+    public static <T> Path<T> findPath(GraphView<T, Double> graph, T srcNode, T dstNode, SearchStats stats){
+        return search(graph, srcNode, dstNode, null, stats);
+    }
+
+    /**
+     * Runs a best-first search from srcNode which settles nodes in order of their distance
+     * from srcNode plus heuristic's estimate of their distance to dstNode. With a null
+     * heuristic this is plain Dijkstra; with a consistent one (never overestimating, and
+     * h(u) &lt;= cost(u, v) + h(v) for every edge) it is A*.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @param heuristic consistent lower bound on the distance from a node to dstNode, or null for 0
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires graph, srcNode, dstNode not null, all edge labels of graph are non-negative
+     * @spec.modifies stats
+     */
+    static <T> Path<T> search(GraphView<T, Double> graph, T srcNode, T dstNode,
+                              ToDoubleFunction<T> heuristic, SearchStats stats){
+
+        if (!graph.containsNode(srcNode) || !graph.containsNode(dstNode)){
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+        if (stats != null) stats.queryStarted();
+        try {
+            return pathSearch(graph, srcNode, dstNode, heuristic, workspace(), stats);
+        } finally {
+            if (stats != null) stats.queryFinished();
+        }
+    }
+
+    // each thread keeps one workspace, which its searches reset rather than reallocate
+    private static final ThreadLocal<SearchWorkspace> WORKSPACE = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * @return the search workspace of the calling thread
+     */
+    static SearchWorkspace workspace(){
+        return WORKSPACE.get();
+    }
+
+    /**
+     * Does the search of search(graph, srcNode, dstNode, heuristic, stats) in workspace, with
+     * the arguments already checked.
+     */
+    private static <T> Path<T> pathSearch(GraphView<T, Double> graph, T srcNode, T dstNode,
+                                          ToDoubleFunction<T> heuristic, SearchWorkspace workspace,
+                                          SearchStats stats){
+        workspace.reset(graph);
+        IndexedMinHeap active = workspace.heap();
+        int srcId = workspace.idOf(srcNode);
+        int dstId = workspace.idOf(dstNode);
+
+        workspace.reach(srcId);
+        workspace.update(srcId, 0, -1, 0);
+        workspace.setEstimate(srcId, heuristic == null ? 0 : heuristic.applyAsDouble(srcNode));
+        active.insertOrDecrease(srcId, workspace.estimate(srcId));
+
+        while (!active.isEmpty()){
+            int minId = active.removeMin();
+            workspace.settle(minId);
+            if (stats != null) {
+                stats.heapPopped();
+                stats.nodeSettled();
+            }
+            checkInterrupted();
+
+            if (minId == dstId){
+                return pathTo(workspace, dstId);
+            }
+
+            for (int e = workspace.edgeStart(minId); e < workspace.edgeEnd(minId); e++) {
+                if (stats != null) stats.edgeRelaxed();
+                int childId = workspace.target(e);
+                if (!workspace.isReached(childId)) {
+                    workspace.reach(childId);
+                    workspace.setEstimate(childId, heuristic == null ? 0 : heuristic.applyAsDouble(workspace.node(childId)));
+                } else if (workspace.isSettled(childId)) {
+                    continue;
+                }
+
+                double cost = workspace.weight(e);
+                double newDist = workspace.dist(minId) + cost;
+                if (newDist < workspace.dist(childId)) {
+                    workspace.update(childId, newDist, minId, cost);
+                    active.insertOrDecrease(childId, newDist + workspace.estimate(childId));
+                    if (stats != null) stats.heapPushed(active.size());
+                }
+            }
+        }
+        return null;
+    }
 
-        if (!graph.listNodes().contains(srcNode) || !graph.listNodes().contains(dstNode)){
+    /**
+     * @return the path to node id dstId found by the search in workspace
+     * @spec.requires dstId is reached in workspace
+     */
+    private static <T> Path<T> pathTo(SearchWorkspace workspace, int dstId){
+        int steps = 0;
+        for (int x = dstId; workspace.parent(x) != -1; x = workspace.parent(x)) {
+            steps++;
+        }
+        int[] trail = workspace.trail(steps);
+        int x = dstId;
+        for (int i = steps - 1; i >= 0; i--) {
+            trail[i] = x;
+            x = workspace.parent(x);
+        }
+
+        Path<T> path = new Path<>(workspace.node(x));
+        for (int i = 0; i < steps; i++) {
+            path = path.extend(workspace.node(trail[i]), workspace.parentCost(trail[i]));
+        }
+        return path;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from srcNode over every node reachable from it.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @throws IllegalArgumentException when graph doesn't contain srcNode
+     * @return the shortest path tree from srcNode to every node reachable from it
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(GraphView<T, Double> graph, T srcNode){
+        return shortestPathTree(graph, srcNode, null);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from srcNode until every node of targets is settled, or every
+     * node reachable from srcNode is if targets is null.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param targets nodes to stop after settling, or null to settle every reachable node
+     * @throws IllegalArgumentException when graph doesn't contain srcNode
+     * @return the shortest path tree found from srcNode, which reaches at least every node of
+     * targets reachable from srcNode
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(GraphView<T, Double> graph, T srcNode, Set<T> targets){
+        if (!graph.containsNode(srcNode)){
             throw new IllegalArgumentException("graph doesn't contain Node");
         }
+        return grow(graph, srcNode, targets, null, null);
+    }
+
+    /**
+     * Finds the shortest distance from every source to every target. Runs one search per source
+     * on the common fork-join pool, each in its thread's workspace and stopping once it has
+     * settled every target.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param sources starting nodes, one per row of the result
+     * @param targets destination nodes, one per column of the result
+     * @throws IllegalArgumentException when graph doesn't contain a source or a target
+     * @return a matrix whose entry [i][j] is the length of the shortest path from sources.get(i)
+     * to targets.get(j), or infinity if there is none
+     * @spec.requires graph, sources, targets not null, all edge labels of graph are non-negative,
+     * graph is not changed during the call
+     */
+    public static <T> double[][] distanceMatrix(GraphView<T, Double> graph, List<T> sources, List<T> targets){
+        for (T node : sources) {
+            if (!graph.containsNode(node)){
+                throw new IllegalArgumentException("graph doesn't contain Node");
+            }
+        }
+        for (T node : targets) {
+            if (!graph.containsNode(node)){
+                throw new IllegalArgumentException("graph doesn't contain Node");
+            }
+        }
 
-        T start = srcNode;
-        T dest = dstNode;
-        PriorityQueue<Path<T>> active = new PriorityQueue<>(new Comparator<Path<T>>() {
-            @Override
-            public int compare(Path<T> o1, Path<T> o2) {
-                return Double.compare(o1.getCost(), o2.getCost());
+        // searches only read graph and each fills its own row, so they can run at the same time
+        double[][] matrix = new double[sources.size()][];
+        IntStream.range(0, sources.size()).parallel().forEach(i -> {
+            SearchWorkspace workspace = workspace();
+            int[] targetIds = targetSearch(graph, sources.get(i), targets, workspace);
+            double[] row = new double[targetIds.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = workspace.isSettled(targetIds[j]) ? workspace.dist(targetIds[j]) : Double.POSITIVE_INFINITY;
             }
+            matrix[i] = row;
         });
-        Set<T> finished = new HashSet<>();
+        return matrix;
+    }
+
+    /**
+     * Finds the shortest paths from srcNode to each of dstNodes with one search in the calling
+     * thread's workspace, which stops once every node of dstNodes is settled. Only the paths to
+     * dstNodes are built.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the paths
+     * @param dstNodes ending nodes of the paths
+     * @throws IllegalArgumentException when graph doesn't contain srcNode or a node of dstNodes
+     * @return a map from each node of dstNodes to the shortest path to it from srcNode, or to
+     * null if there is none
+     * @spec.requires graph, srcNode, dstNodes not null, all edge labels of graph are non-negative
+     */
+    public static <T> Map<T, Path<T>> findPaths(GraphView<T, Double> graph, T srcNode, Collection<T> dstNodes){
+        if (!graph.containsNode(srcNode)){
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+        for (T node : dstNodes) {
+            if (!graph.containsNode(node)){
+                throw new IllegalArgumentException("graph doesn't contain Node");
+            }
+        }
+
+        SearchWorkspace workspace = workspace();
+        int[] dstIds = targetSearch(graph, srcNode, dstNodes, workspace);
+        Map<T, Path<T>> paths = new HashMap<>();
+        int j = 0;
+        for (T node : dstNodes) {
+            int dstId = dstIds[j++];
+            paths.put(node, workspace.isSettled(dstId) ? pathTo(workspace, dstId) : null);
+        }
+        return paths;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from srcNode in workspace until every node of targets is
+     * settled or no reachable node is left, leaving the search's distances and parents there.
+     * @return the id in workspace of each node of targets, in iteration order
+     * @spec.requires graph, srcNode, targets, workspace not null, graph contains srcNode and
+     * every node of targets
+     * @spec.modifies workspace
+     */
+    private static <T> int[] targetSearch(GraphView<T, Double> graph, T srcNode, Collection<T> targets,
+                                          SearchWorkspace workspace){
+        workspace.reset(graph);
+        IndexedMinHeap active = workspace.heap();
+        int[] targetIds = new int[targets.size()];
+        int remaining = 0;
+        int j = 0;
+        for (T target : targets) {
+            targetIds[j] = workspace.idOf(target);
+            if (workspace.markTarget(targetIds[j])) remaining++;
+            j++;
+        }
+
+        int srcId = workspace.idOf(srcNode);
+        workspace.reach(srcId);
+        workspace.update(srcId, 0, -1, 0);
+        active.insertOrDecrease(srcId, 0);
+
+        while (remaining > 0 && !active.isEmpty()){
+            int minId = active.removeMin();
+            workspace.settle(minId);
+            checkInterrupted();
+            if (workspace.isTarget(minId) && --remaining == 0){
+                break;
+            }
+
+            for (int e = workspace.edgeStart(minId); e < workspace.edgeEnd(minId); e++) {
+                int childId = workspace.target(e);
+                if (!workspace.isReached(childId)) {
+                    workspace.reach(childId);
+                } else if (workspace.isSettled(childId)) {
+                    continue;
+                }
+
+                double cost = workspace.weight(e);
+                double newDist = workspace.dist(minId) + cost;
+                if (newDist < workspace.dist(childId)) {
+                    workspace.update(childId, newDist, minId, cost);
+                    active.insertOrDecrease(childId, newDist);
+                }
+            }
+        }
+        return targetIds;
+    }
+
+    /**
+     * Finds every node within radius of srcNode. Unlike shortestPathTree, the search never
+     * queues a node farther than radius, so it only explores the neighbourhood of srcNode.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param radius the largest distance from srcNode to include
+     * @throws IllegalArgumentException when graph doesn't contain srcNode, or radius is negative
+     * or NaN
+     * @return the distance from srcNode to every node at most radius from it, in order of
+     * increasing distance
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative
+     */
+    public static <T> Map<T, Double> withinRadius(GraphView<T, Double> graph, T srcNode, double radius){
+        return withinRadius(graph, srcNode, radius, null);
+    }
 
-        active.add(new Path<T>(srcNode));
+    /**
+     * Same as withinRadius(graph, srcNode, radius), and also adds the work done to stats.
+     * @param <T> generic T for Graph's node type.
+     * @param graph a graph with any type of node label and Double type edge label
+     * @param srcNode starting node of the search
+     * @param radius the largest distance from srcNode to include
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when graph doesn't contain srcNode, or radius is negative
+     * or NaN
+     * @return the distance from srcNode to every node at most radius from it, in order of
+     * increasing distance
+     * @spec.requires graph, srcNode not null, all edge labels of graph are non-negative
+     * @spec.modifies stats
+     */
+    public static <T> Map<T, Double> withinRadius(GraphView<T, Double> graph, T srcNode, double radius,
+                                                  SearchStats stats){
+        if (!graph.containsNode(srcNode)){
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+        if (!(radius >= 0)){
+            throw new IllegalArgumentException("radius must be non-negative");
+        }
+
+        if (stats != null) stats.queryStarted();
+        try {
+            return radiusSearch(graph, srcNode, radius, workspace(), stats);
+        } finally {
+            if (stats != null) stats.queryFinished();
+        }
+    }
 
+    /**
+     * Does the search of withinRadius in workspace, with the arguments already checked.
+     */
+    private static <T> Map<T, Double> radiusSearch(GraphView<T, Double> graph, T srcNode, double radius,
+                                                   SearchWorkspace workspace, SearchStats stats){
+        workspace.reset(graph);
+        IndexedMinHeap active = workspace.heap();
+        int srcId = workspace.idOf(srcNode);
+        workspace.reach(srcId);
+        workspace.update(srcId, 0, -1, 0);
+        active.insertOrDecrease(srcId, 0);
+
+        Map<T, Double> reached = new LinkedHashMap<>();
         while (!active.isEmpty()){
-            Path<T> minPath = active.remove();
-            T minDest = minPath.getEnd();
+            int minId = active.removeMin();
+            workspace.settle(minId);
+            reached.put(workspace.node(minId), workspace.dist(minId));
+            if (stats != null) {
+                stats.heapPopped();
+                stats.nodeSettled();
+            }
+            checkInterrupted();
 
-            if (dest.equals(minDest)){
-                return minPath;
+            for (int e = workspace.edgeStart(minId); e < workspace.edgeEnd(minId); e++) {
+                if (stats != null) stats.edgeRelaxed();
+                double cost = workspace.weight(e);
+                double newDist = workspace.dist(minId) + cost;
+                if (newDist > radius) continue;   // outside the radius, never worth queueing
+
+                int childId = workspace.target(e);
+                if (!workspace.isReached(childId)) {
+                    workspace.reach(childId);
+                } else if (workspace.isSettled(childId)) {
+                    continue;
+                }
+                if (newDist < workspace.dist(childId)) {
+                    workspace.update(childId, newDist, minId, cost);
+                    active.insertOrDecrease(childId, newDist);
+                    if (stats != null) stats.heapPushed(active.size());
+                }
             }
-            if (finished.contains(minDest)) continue;
+        }
+        return reached;
+    }
+
+    /**
+     * Settles nodes in order of their distance from srcNode plus heuristic's estimate, until
+     * every node of targets is settled or no reachable node is left.
+     */
+    private static <T> ShortestPathTree<T> grow(GraphView<T, Double> graph, T srcNode, Set<T> targets,
+                                                ToDoubleFunction<T> heuristic, SearchStats stats){
+        ShortestPathTree<T> tree = new ShortestPathTree<>(srcNode);
+        int remaining = targets == null ? -1 : targets.size();
+
+        // estimate caches the heuristic's value for each node, indexed by the node's id in tree
+        double[] estimate = new double[16];
+        IndexedMinHeap active = new IndexedMinHeap(16);
 
-            List<Graph.Edge<T, Double>> edges = new ArrayList<>(graph.listChildren(dstNode));
+        estimate[0] = heuristic == null ? 0 : heuristic.applyAsDouble(srcNode);
+        active.insertOrDecrease(0, estimate[0]);
 
-            edges.sort((o1, o2) -> o1.getLabel().compareTo(o2.getLabel()));
+        while (!active.isEmpty()){
+            int minId = active.removeMin();
+            T minDest = tree.node(minId);
+            tree.settle(minId);
+            if (stats != null) {
+                stats.heapPopped();
+                stats.nodeSettled();
+            }
+            checkInterrupted();
+
+            if (targets != null && targets.contains(minDest) && --remaining == 0){
+                break;
+            }
 
-            for (Graph.Edge<T, Double> child : graph.listChildren(minDest)) {
-                if (!finished.contains(child.getdstName())) {
-                    active.add(minPath.extend(child.getdstName(), child.getLabel()));
+            for (Graph.Edge<T, Double> child : graph.viewChildren(minDest)) {
+                if (stats != null) stats.edgeRelaxed();
+                int childId = tree.idOf(child.getdstName());
+                if (childId < 0) {
+                    childId = tree.add(child.getdstName());
+                    if (childId == estimate.length) {
+                        estimate = Arrays.copyOf(estimate, 2 * childId);
+                    }
+                    estimate[childId] = heuristic == null ? 0 : heuristic.applyAsDouble(child.getdstName());
+                } else if (tree.isSettled(childId)) {
+                    continue;
+                }
+
+                double cost = child.getLabel();
+                double newDist = tree.dist(minId) + cost;
+                if (newDist < tree.dist(childId)) {
+                    tree.update(childId, newDist, minId, cost);
+                    active.insertOrDecrease(childId, newDist + estimate[childId]);
+                    if (stats != null) stats.heapPushed(active.size());
                 }
             }
-            finished.add(minDest);
         }
-        return null;
+        return tree;
+    }
+
+    /**
+     * @throws CancellationException if the current thread has been interrupted
+     */
+    static void checkInterrupted(){
+        if (Thread.currentThread().isInterrupted()){
+            throw new CancellationException("search interrupted");
+        }
     }
 }
@@ -0,0 +1,250 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Answers shortest path queries with ALT search: A* guided by distances to and from a few
+ * landmark nodes, using the triangle inequality. For a landmark L, any path from v to t
+ * costs at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L). Unlike straight-line
+ * distance, these bounds already account for walkways that detour around obstacles.
+ * <p>
+ * The constructor runs one full Dijkstra search from and one to every landmark, spread across
+ * all cores. The graph must not be changed while this is in use.
+ */
+public class Landmarks<T> {
+
+    // Nodes have dense ids 0 .. nodes.size() - 1. fromLandmark[i][v] is the distance from
+    // landmark i to node v, and toLandmark[i][v] the distance from node v to landmark i, or
+    // infinity where there is no such path.
+    //
+    // RI: graph, ids, nodes, landmarks, fromLandmark, toLandmark != null,
+    //     ids.get(nodes.get(i)) == i,
+    //     fromLandmark.length == toLandmark.length == landmarks.size(),
+    //     each fromLandmark[i] and toLandmark[i] has length nodes.size()
+    // AF(this) = a shortest path finder over graph using landmarks as reference points
+
+    private final GraphView<T, Double> graph;
+    private final Map<T, Integer> ids;
+    private final List<T> nodes;
+    private final List<T> landmarks;
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+
+    /**
+     * Creates an ALT search over graph using the given landmarks.
+     * @param graph a graph with any type of node label and non-negative Double type edge label
+     * @param landmarks nodes of graph to measure distances from and to
+     * @throws IllegalArgumentException if a landmark is not a node of graph
+     * @spec.requires graph, landmarks != null and graph is not changed while this is in use
+     */
+    public Landmarks(GraphView<T, Double> graph, List<T> landmarks) {
+        this.graph = graph;
+        this.nodes = graph.listNodes();
+        this.ids = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ids.put(nodes.get(i), i);
+        }
+        for (T landmark : landmarks) {
+            if (!ids.containsKey(landmark))
+                throw new IllegalArgumentException("graph doesn't contain landmark");
+        }
+        this.landmarks = List.copyOf(landmarks);
+
+        // dense adjacency in both directions: edges of node v are the slices
+        // [start[v], start[v + 1]) of target and weight
+        int n = nodes.size();
+        int[] outStart = new int[n + 1];
+        int[] inStart = new int[n + 1];
+        List<Graph.Edge<T, Double>> edges = new ArrayList<>();
+        for (T node : nodes) {
+            for (Graph.Edge<T, Double> edge : graph.viewChildren(node)) {
+                edges.add(edge);
+                outStart[ids.get(edge.getsrcName()) + 1]++;
+                inStart[ids.get(edge.getdstName()) + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            outStart[i + 1] += outStart[i];
+            inStart[i + 1] += inStart[i];
+        }
+        int[] outTarget = new int[edges.size()];
+        double[] outWeight = new double[edges.size()];
+        int[] inTarget = new int[edges.size()];
+        double[] inWeight = new double[edges.size()];
+        int[] outFill = Arrays.copyOf(outStart, n);
+        int[] inFill = Arrays.copyOf(inStart, n);
+        for (Graph.Edge<T, Double> edge : edges) {
+            int src = ids.get(edge.getsrcName());
+            int dst = ids.get(edge.getdstName());
+            outTarget[outFill[src]] = dst;
+            outWeight[outFill[src]++] = edge.getLabel();
+            inTarget[inFill[dst]] = src;
+            inWeight[inFill[dst]++] = edge.getLabel();
+        }
+
+        // each search only reads the shared arrays and writes its own result, so they can run
+        // on the common fork-join pool
+        int k = this.landmarks.size();
+        fromLandmark = new double[k][];
+        toLandmark = new double[k][];
+        IntStream.range(0, 2 * k).parallel().forEach(i -> {
+            int root = ids.get(this.landmarks.get(i / 2));
+            if (i % 2 == 0)
+                fromLandmark[i / 2] = distances(root, outStart, outTarget, outWeight);
+            else
+                toLandmark[i / 2] = distances(root, inStart, inTarget, inWeight);
+        });
+    }
+
+    /**
+     * Creates an ALT search with the landmark distances of search over graph.
+     */
+    private Landmarks(Landmarks<T> search, GraphView<T, Double> graph) {
+        this.graph = graph;
+        this.ids = search.ids;
+        this.nodes = search.nodes;
+        this.landmarks = search.landmarks;
+        this.fromLandmark = search.fromLandmark;
+        this.toLandmark = search.toLandmark;
+    }
+
+    /**
+     * Returns an ALT search with the same landmark distances as this one which searches graph,
+     * such as when this was built over a copy of graph.
+     * @param graph the graph to search
+     * @return an ALT search over graph sharing the landmark distances of this
+     * @spec.requires graph != null and has the same nodes and edges as the graph of this
+     */
+    Landmarks<T> over(GraphView<T, Double> graph) {
+        return new Landmarks<>(this, graph);
+    }
+
+    /**
+     * Chooses up to k landmarks spread around the edge of the graph: the plane is divided into
+     * k equal angular sectors around the centroid of the nodes, and the node farthest from the
+     * centroid is taken from each sector that has one.
+     * @param graph a graph with Point nodes
+     * @param k the number of sectors
+     * @return the chosen landmarks
+     * @spec.requires graph != null, k &gt; 0
+     */
+    public static List<Point> planarLandmarks(GraphView<Point, Double> graph, int k) {
+        List<Point> points = graph.listNodes();
+        double cx = 0;
+        double cy = 0;
+        for (Point p : points) {
+            cx += p.getX();
+            cy += p.getY();
+        }
+        cx /= Math.max(points.size(), 1);
+        cy /= Math.max(points.size(), 1);
+
+        Point[] farthest = new Point[k];
+        double[] farthestDist = new double[k];
+        for (Point p : points) {
+            double dx = p.getX() - cx;
+            double dy = p.getY() - cy;
+            double angle = Math.atan2(dy, dx) + Math.PI;
+            int sector = Math.min((int) (angle / (2 * Math.PI) * k), k - 1);
+            double dist = Math.hypot(dx, dy);
+            if (farthest[sector] == null || dist > farthestDist[sector]) {
+                farthest[sector] = p;
+                farthestDist[sector] = dist;
+            }
+        }
+
+        List<Point> ret = new ArrayList<>();
+        for (Point p : farthest) {
+            if (p != null) ret.add(p);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the landmarks used by this search
+     */
+    public List<T> getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @param from a node of the graph
+     * @param to a node of the graph
+     * @throws IllegalArgumentException when the graph doesn't contain from or to
+     * @return a lower bound on the cost of any path from from to to
+     */
+    public double lowerBound(T from, T to) {
+        Integer v = ids.get(from);
+        Integer t = ids.get(to);
+        if (v == null || t == null)
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        return lowerBound(v, t);
+    }
+
+    /**
+     * @param srcNode starting node of the search
+     * @param dstNode destination node of the search
+     * @param stats counters to add to, or null to skip counting
+     * @throws IllegalArgumentException when the graph doesn't contain srcNode or dstNode
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     * @spec.requires srcNode, dstNode not null
+     * @spec.modifies stats
+     */
+    public Path<T> findPath(T srcNode, T dstNode, SearchStats stats) {
+        Integer t = ids.get(dstNode);
+        if (t == null)
+            throw new IllegalArgumentException("graph doesn't contain Node");
+        ToDoubleFunction<T> heuristic = node -> lowerBound(ids.get(node), t);
+        return Dijkstra.search(graph, srcNode, dstNode, heuristic, stats);
+    }
+
+    /**
+     * @return the largest triangle inequality bound on the distance from node v to node t.
+     * Bounds involving an unreachable landmark are skipped, so the result stays a valid lower
+     * bound on graphs that are not strongly connected.
+     */
+    private double lowerBound(int v, int t) {
+        double bound = 0;
+        for (int i = 0; i < fromLandmark.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+            if (from[t] != Double.POSITIVE_INFINITY && from[v] != Double.POSITIVE_INFINITY)
+                bound = Math.max(bound, from[t] - from[v]);
+            if (to[v] != Double.POSITIVE_INFINITY && to[t] != Double.POSITIVE_INFINITY)
+                bound = Math.max(bound, to[v] - to[t]);
+        }
+        return bound;
+    }
+
+    /**
+     * @return the distance from root to every node over the given adjacency
+     */
+    private static double[] distances(int root, int[] start, int[] target, double[] weight) {
+        int n = start.length - 1;
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        IndexedMinHeap active = new IndexedMinHeap(n);
+        dist[root] = 0;
+        active.insertOrDecrease(root, 0);
+        while (!active.isEmpty()) {
+            int u = active.removeMin();
+            for (int i = start[u]; i < start[u + 1]; i++) {
+                int v = target[i];
+                double newDist = dist[u] + weight[i];
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    active.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -14,6 +14,7 @@ package pathfinder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.List;
 import java.util.Map;
 
 /*
@@ -69,4 +70,34 @@ public interface ModelAPI {
      */
     public Path<Point> findShortestPath(String startShortName, String endShortName);
 
+    /**
+     * Finds the shortest paths, by distance, between each of the provided pairs of buildings.
+     *
+     * @param pairs The short names of the start (key) and end (value) building of each path.
+     * @return The path for each pair, in the order of {@code pairs}, with {@literal null} for
+     * pairs that have no path.
+     * @throws IllegalArgumentException if any name is {@literal null} or not a valid short name
+     *                                  of a building in this campus map.
+     */
+    public List<Path<Point>> findShortestPaths(List<Map.Entry<String, String>> pairs);
+
+    /**
+     * @param shortName The short name of a building to look up.
+     * @return The location of the building corresponding to the provided short name.
+     * @throws IllegalArgumentException if the short name provided does not exist.
+     */
+    public Point locationForShort(String shortName);
+
+    /**
+     * Finds the shortest paths, by distance, from the provided building to every reachable
+     * location with a single search. The distance and path to any destination, such as
+     * {@code locationForShort(name)} for another building, can then be read from the result.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @return The shortest path tree rooted at {@code startShortName}'s location.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a
+     *                                  valid short name of a building in this campus map.
+     */
+    public ShortestPathTree<Point> shortestPathTree(String startShortName);
+
 }
@@ -0,0 +1,103 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * This is an util class which simplifies the shape of paths with the Douglas-Peucker
+ * algorithm, for drawing them with fewer segments.
+ * <p>
+ * A simplified path visits a subset of the original path's points, always including its start
+ * and end, such that every dropped point lies within the tolerance of the simplified line.
+ * Each simplified segment costs the total of the original segments it replaces, so the cost
+ * of the whole path is unchanged: it still describes the walk, not the straight line.
+ */
+public class PathSimplifier {
+
+    /**
+     * Returns a path through a subset of the points of path which strays from the original
+     * shape by at most tolerance.
+     * @param path the path to simplify
+     * @param tolerance the largest distance a dropped point may lie from the simplified path
+     * @throws IllegalArgumentException if tolerance is negative or NaN
+     * @return a path with the same start, end and cost as path, whose points are a subsequence
+     * of path's and whose segments each stand for a run of path's segments, within tolerance
+     * of all of their points
+     * @spec.requires path != null
+     */
+    public static Path<Point> simplify(Path<Point> path, double tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("tolerance must be non-negative");
+        }
+
+        // points.get(i) is the end of the first i segments, and costs[i] the cost of segment i
+        List<Point> points = new ArrayList<>(path.size() + 1);
+        double[] costs = new double[path.size()];
+        points.add(path.getStart());
+        for (Path<Point>.Segment<Point> segment : path) {
+            costs[points.size() - 1] = segment.getCost();
+            points.add(segment.getEnd());
+        }
+        if (points.size() <= 2) {
+            return path;
+        }
+
+        // split each span at its farthest point until every span is within tolerance
+        BitSet keep = new BitSet(points.size());
+        keep.set(0);
+        keep.set(points.size() - 1);
+        Deque<int[]> spans = new ArrayDeque<>();
+        spans.push(new int[] {0, points.size() - 1});
+        while (!spans.isEmpty()) {
+            int[] span = spans.pop();
+            int first = span[0];
+            int last = span[1];
+            int farthest = -1;
+            double farthestDistance = tolerance;
+            for (int i = first + 1; i < last; i++) {
+                double d = distanceToSegment(points.get(i), points.get(first), points.get(last));
+                if (d > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = d;
+                }
+            }
+            if (farthest >= 0) {
+                keep.set(farthest);
+                spans.push(new int[] {first, farthest});
+                spans.push(new int[] {farthest, last});
+            }
+        }
+
+        Path<Point> ret = new Path<>(path.getStart());
+        double runCost = 0;
+        for (int i = 1; i < points.size(); i++) {
+            runCost += costs[i - 1];
+            if (keep.get(i)) {
+                ret = ret.extend(points.get(i), runCost);
+                runCost = 0;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * @return the distance from p to the closest point of the line segment from a to b
+     */
+    private static double distanceToSegment(Point p, Point a, Point b) {
+        double dx = b.getX() - a.getX();
+        double dy = b.getY() - a.getY();
+        double lengthSq = dx * dx + dy * dy;
+        double t = 0;
+        if (lengthSq > 0) {
+            t = ((p.getX() - a.getX()) * dx + (p.getY() - a.getY()) * dy) / lengthSq;
+            t = Math.max(0, Math.min(1, t));
+        }
+        return Math.hypot(p.getX() - (a.getX() + t * dx), p.getY() - (a.getY() + t * dy));
+    }
+}
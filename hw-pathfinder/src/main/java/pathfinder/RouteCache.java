@@ -0,0 +1,347 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A ModelAPI which remembers the most recently used shortest paths of another ModelAPI, so
+ * repeated queries skip the search. Entries are evicted least recently used first once either
+ * the number of cached routes or their total number of segments exceeds its bound.
+ * <p>
+ * All methods are safe to call from many threads at once. Searches for missing routes run
+ * outside the cache's lock, so concurrent misses do not wait on each other.
+ * <p>
+ * When the delegate's walkways change, invalidateSegment or clear drops the routes which may no
+ * longer be shortest. Searches which were already running when that happened are not cached.
+ */
+public class RouteCache implements ModelAPI {
+
+    // routes holds the cached results in least to most recently used order, where a null value
+    // records that no path exists. weight is the total number of segments over all routes.
+    // version counts the invalidations, so a search can tell whether one happened while it ran.
+    //
+    // RI: delegate, routes != null, maxEntries > 0, maxSegments >= 0,
+    //     routes.size() <= maxEntries, weight == sum of segments(p) over routes' values p
+    // AF(this) = delegate, answering findShortestPath(s, e) from routes.get((s, e)) when present,
+    //            or from the reverse of routes.get((e, s)) when symmetric
+
+    private final ModelAPI delegate;
+    private final int maxEntries;
+    private final long maxSegments;
+    private final boolean symmetric;
+
+    private final LinkedHashMap<RouteKey, Path<Point>> routes;
+    private long weight;
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * Creates an empty cache in front of delegate.
+     * @param delegate the model that answers queries missing from the cache
+     * @param maxEntries the largest number of routes to hold
+     * @param maxSegments the largest total number of segments over all routes held
+     * @param symmetric true if every edge of delegate's graph has a reverse edge of equal cost,
+     *                  so the path from e to s is the reverse of the path from s to e
+     * @throws IllegalArgumentException if maxEntries &lt;= 0 or maxSegments &lt; 0
+     * @spec.requires delegate != null
+     */
+    public RouteCache(ModelAPI delegate, int maxEntries, long maxSegments, boolean symmetric) {
+        if (maxEntries <= 0 || maxSegments < 0)
+            throw new IllegalArgumentException("cache bounds must be positive");
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxSegments = maxSegments;
+        this.symmetric = symmetric;
+        this.routes = new LinkedHashMap<>(16, 0.75f, true);
+        this.weight = 0;
+    }
+
+    @Override
+    public boolean shortNameExists(String shortName) {
+        return delegate.shortNameExists(shortName);
+    }
+
+    @Override
+    public String longNameForShort(String shortName) {
+        return delegate.longNameForShort(shortName);
+    }
+
+    @Override
+    public Map<String, String> buildingNames() {
+        return delegate.buildingNames();
+    }
+
+    @Override
+    public Point locationForShort(String shortName) {
+        return delegate.locationForShort(shortName);
+    }
+
+    @Override
+    public ShortestPathTree<Point> shortestPathTree(String startShortName) {
+        return delegate.shortestPathTree(startShortName);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, using a cached
+     * result when there is one.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        RouteKey key = new RouteKey(startShortName, endShortName);
+        long seen;
+        synchronized (routes) {
+            if (routes.containsKey(key)) {
+                hits.increment();
+                return routes.get(key);
+            }
+            RouteKey reverseKey = new RouteKey(endShortName, startShortName);
+            if (symmetric && routes.containsKey(reverseKey)) {
+                hits.increment();
+                Path<Point> forward = routes.get(reverseKey);
+                return forward == null ? null : reverse(forward);
+            }
+            seen = version;
+        }
+
+        misses.increment();
+        long start = System.nanoTime();
+        Path<Point> path = delegate.findShortestPath(startShortName, endShortName);
+        loadNanos.add(System.nanoTime() - start);
+
+        put(key, path, seen);
+        return path;
+    }
+
+    /**
+     * Caches path under key, evicting the least recently used routes to stay within bounds,
+     * unless the cache was invalidated since it was at version seen.
+     */
+    private void put(RouteKey key, Path<Point> path, long seen) {
+        synchronized (routes) {
+            if (version != seen) return;
+            Path<Point> old = routes.put(key, path);
+            weight += segments(path) - (old == null ? 0 : segments(old));
+            Iterator<Map.Entry<RouteKey, Path<Point>>> eldest = routes.entrySet().iterator();
+            while (routes.size() > maxEntries || (weight > maxSegments && routes.size() > 1)) {
+                Map.Entry<RouteKey, Path<Point>> entry = eldest.next();
+                weight -= segments(entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Finds the shortest paths, by distance, between each of the provided pairs of buildings.
+     * Pairs found in the cache are answered from it, and the rest are passed on to the delegate
+     * as one batch and then cached.
+     *
+     * @param pairs The short names of the start (key) and end (value) building of each path.
+     * @return The path for each pair, in the order of {@code pairs}, with {@literal null} for
+     * pairs that have no path.
+     * @throws IllegalArgumentException if any name is {@literal null} or not a valid short name
+     *                                  of a building in this campus map.
+     */
+    @Override
+    public List<Path<Point>> findShortestPaths(List<Map.Entry<String, String>> pairs) {
+        List<Path<Point>> ret = new ArrayList<>(pairs.size());
+        List<Integer> missed = new ArrayList<>();
+        long seen;
+        synchronized (routes) {
+            for (Map.Entry<String, String> pair : pairs) {
+                RouteKey key = new RouteKey(pair.getKey(), pair.getValue());
+                RouteKey reverseKey = new RouteKey(pair.getValue(), pair.getKey());
+                if (routes.containsKey(key)) {
+                    hits.increment();
+                    ret.add(routes.get(key));
+                } else if (symmetric && routes.containsKey(reverseKey)) {
+                    hits.increment();
+                    Path<Point> forward = routes.get(reverseKey);
+                    ret.add(forward == null ? null : reverse(forward));
+                } else {
+                    missed.add(ret.size());
+                    ret.add(null);
+                }
+            }
+            seen = version;
+        }
+        if (missed.isEmpty()) return ret;
+
+        List<Map.Entry<String, String>> missedPairs = new ArrayList<>();
+        for (int i : missed) {
+            missedPairs.add(pairs.get(i));
+        }
+        misses.add(missed.size());
+        long start = System.nanoTime();
+        List<Path<Point>> loaded = delegate.findShortestPaths(missedPairs);
+        loadNanos.add(System.nanoTime() - start);
+
+        for (int i = 0; i < missed.size(); i++) {
+            ret.set(missed.get(i), loaded.get(i));
+            put(new RouteKey(missedPairs.get(i).getKey(), missedPairs.get(i).getValue()), loaded.get(i), seen);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of queries passed on to the delegate
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the fraction of queries answered from the cache, or 0 if there were none
+     */
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * @return the number of routes evicted to stay within the cache's bounds
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the total time spent by the delegate answering missed queries, in nanoseconds
+     */
+    public long totalLoadTimeNanos() {
+        return loadNanos.sum();
+    }
+
+    /**
+     * @return the number of routes currently cached
+     */
+    public int size() {
+        synchronized (routes) {
+            return routes.size();
+        }
+    }
+
+    /**
+     * Removes every cached route. The counters keep their values.
+     * @spec.modifies this
+     */
+    public void clear() {
+        synchronized (routes) {
+            routes.clear();
+            weight = 0;
+            version++;
+        }
+    }
+
+    /**
+     * Removes every cached route which walks between a and b, in either direction. This is
+     * enough after that walkway is closed or made more expensive, as no other route can get
+     * shorter; after any other change to the delegate's walkways, use clear instead.
+     * @param a the location at one end of the walkway
+     * @param b the location at the other end of the walkway
+     * @return the number of routes removed
+     * @spec.modifies this
+     */
+    public int invalidateSegment(Point a, Point b) {
+        synchronized (routes) {
+            int removed = 0;
+            Iterator<Path<Point>> cached = routes.values().iterator();
+            while (cached.hasNext()) {
+                Path<Point> path = cached.next();
+                if (path != null && walks(path, a, b)) {
+                    weight -= segments(path);
+                    cached.remove();
+                    removed++;
+                }
+            }
+            version++;
+            return removed;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount() + " misses=" + missCount() + " evictions=" + evictionCount()
+                + " loadNanos=" + totalLoadTimeNanos();
+    }
+
+    /**
+     * @return the same path walked from its end to its start
+     */
+    static Path<Point> reverse(Path<Point> path) {
+        List<Path<Point>.Segment<Point>> segments = new ArrayList<>();
+        for (Path<Point>.Segment<Point> segment : path) {
+            segments.add(segment);
+        }
+        Path<Point> ret = new Path<>(path.getEnd());
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            ret = ret.extend(segments.get(i).getStart(), segments.get(i).getCost());
+        }
+        return ret;
+    }
+
+    /**
+     * @return true if path has a segment from a to b or from b to a
+     */
+    private static boolean walks(Path<Point> path, Point a, Point b) {
+        for (Path<Point>.Segment<Point> segment : path) {
+            if ((segment.getStart().equals(a) && segment.getEnd().equals(b))
+                    || (segment.getStart().equals(b) && segment.getEnd().equals(a)))
+                return true;
+        }
+        return false;
+    }
+
+    private static long segments(Path<Point> path) {
+        return path == null ? 0 : path.size();
+    }
+
+    /**
+     * Represents an immutable pair of building short names.
+     */
+    private static class RouteKey {
+
+        private final String start;
+        private final String end;
+
+        RouteKey(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RouteKey)) return false;
+            RouteKey other = (RouteKey) o;
+            return Objects.equals(start, other.start) && Objects.equals(end, other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(start) + Objects.hashCode(end);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a precomputed table of the shortest paths between every pair of a fixed set of
+ * endpoints, such as the buildings of a campus.
+ * <p>
+ * The constructor runs one Dijkstra search per endpoint on the common fork-join pool, each
+ * stopping once it has settled every other endpoint. Each search keeps only the part of its
+ * shortest path tree that leads to an endpoint, and builds the Path to every endpoint from
+ * it up front, so findPath is a lookup. Routes from the same endpoint share the segments of
+ * their common prefixes, so memory grows with the size of the trees rather than with the
+ * total length of all routes.
+ * <p>
+ * When edges of the graph are removed or made more expensive, edgeCostIncreased recomputes
+ * only the trees that used them; every other route is still a shortest path. Any other change
+ * to the graph needs a new table.
+ */
+public class RouteTable<T> {
+
+    // RI: graph, targets, trees, routes != null, trees.keySet().equals(targets),
+    //     routes.keySet().equals(targets), trees.get(e) is rooted at e and reaches only nodes
+    //     on shortest paths in graph between endpoints, routes.get(e).equals(
+    //     trees.get(e).pathsTo(targets))
+    // AF(this) = the shortest path between endpoints a and b is routes.get(a).get(b), or none
+    //            if b is not a key of routes.get(a)
+
+    private final GraphView<T, Double> graph;
+    private final Set<T> targets;
+    private final Map<T, ShortestPathTree<T>> trees;
+    private final Map<T, Map<T, Path<T>>> routes;
+
+    /**
+     * Creates a table of the shortest paths between every pair of endpoints.
+     * @param graph a graph with any type of node label and non-negative Double type edge label
+     * @param endpoints the nodes to find paths between
+     * @throws IllegalArgumentException if an endpoint is not a node of graph
+     * @spec.requires graph, endpoints != null and graph is not changed during construction
+     */
+    public RouteTable(GraphView<T, Double> graph, Collection<T> endpoints) {
+        this.graph = graph;
+        this.targets = Set.copyOf(endpoints);
+        for (T endpoint : targets) {
+            if (!graph.containsNode(endpoint))
+                throw new IllegalArgumentException("graph doesn't contain Node");
+        }
+
+        // searches only read graph, so they can run at the same time
+        trees = new ConcurrentHashMap<>();
+        routes = new ConcurrentHashMap<>();
+        targets.parallelStream().forEach(this::grow);
+    }
+
+    /**
+     * Creates a table with the routes of table over graph.
+     */
+    private RouteTable(RouteTable<T> table, GraphView<T, Double> graph) {
+        this.graph = graph;
+        this.targets = table.targets;
+        this.trees = new ConcurrentHashMap<>(table.trees);
+        this.routes = new ConcurrentHashMap<>(table.routes);
+    }
+
+    /**
+     * Returns a table with the same routes as this one whose later updates search graph, such
+     * as when this table was built over a copy of graph.
+     * @param graph the graph to search when brought up to date
+     * @return a table with the routes of this one over graph
+     * @spec.requires graph != null and has the same nodes and edges as the graph of this table
+     */
+    RouteTable<T> over(GraphView<T, Double> graph) {
+        return new RouteTable<>(this, graph);
+    }
+
+    /**
+     * Searches graph from src and stores the pruned shortest path tree rooted at src and the
+     * routes from src to every endpoint.
+     * @spec.modifies this
+     */
+    private void grow(T src) {
+        ShortestPathTree<T> tree = Dijkstra.shortestPathTree(graph, src, targets).prune(targets);
+        routes.put(src, tree.pathsTo(targets));
+        trees.put(src, tree);
+    }
+
+    /**
+     * Brings this table up to date after every edge from src to dst in the graph was removed or
+     * given a higher cost, by searching again from just the endpoints whose routes used such
+     * an edge. No route gets shorter when costs only rise, so the others are still shortest.
+     * @param src the start of the changed edge
+     * @param dst the end of the changed edge
+     * @return the number of endpoints whose routes were recomputed
+     * @spec.requires src, dst != null, the only changes to the graph since this table was last
+     * brought up to date are removals or cost increases of edges from src to dst, and
+     * findPath is not called at the same time
+     * @spec.modifies this
+     */
+    public int edgeCostIncreased(T src, T dst) {
+        List<T> stale = new ArrayList<>();
+        for (Map.Entry<T, ShortestPathTree<T>> entry : trees.entrySet()) {
+            if (entry.getValue().usesEdge(src, dst))
+                stale.add(entry.getKey());
+        }
+        stale.parallelStream().forEach(this::grow);
+        return stale.size();
+    }
+
+    /**
+     * @param srcNode starting endpoint of the path
+     * @param dstNode destination endpoint of the path
+     * @throws IllegalArgumentException when srcNode or dstNode is not an endpoint of this table
+     * @return null if path from srcNode to dstNode doesn't exist else a shortest path from srcNode to dstNode
+     */
+    public Path<T> findPath(T srcNode, T dstNode) {
+        Map<T, Path<T>> from = srcNode == null ? null : routes.get(srcNode);
+        if (from == null || dstNode == null || !targets.contains(dstNode))
+            throw new IllegalArgumentException("not an endpoint of this table");
+        return from.get(dstNode);
+    }
+
+    /**
+     * @return the total number of nodes stored over all endpoints' trees
+     */
+    public int size() {
+        int size = 0;
+        for (ShortestPathTree<T> tree : trees.values()) {
+            size += tree.size();
+        }
+        return size;
+    }
+}
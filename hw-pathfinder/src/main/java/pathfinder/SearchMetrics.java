@@ -0,0 +1,140 @@
+package pathfinder;
+
+import pathfinder.datastructures.LogHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents thread-safe histograms of the work done by individual shortest path queries, built
+ * by recording one SearchStats per query. Shows which kind of work, if any, makes the slow
+ * queries slow.
+ */
+public class SearchMetrics {
+
+    // RI: every histogram != null, and all have the same count
+    // AF(this) = the distributions, over every query recorded since creation or the last reset,
+    //            of each query's nodes settled, edges relaxed, heap pushes and pops, largest
+    //            frontier, bytes allocated and elapsed nanoseconds
+
+    private final LogHistogram nodesSettled = new LogHistogram();
+    private final LogHistogram edgesRelaxed = new LogHistogram();
+    private final LogHistogram heapPushes = new LogHistogram();
+    private final LogHistogram heapPops = new LogHistogram();
+    private final LogHistogram maxFrontier = new LogHistogram();
+    private final LogHistogram allocatedBytes = new LogHistogram();
+    private final LogHistogram elapsedNanos = new LogHistogram();
+
+    /**
+     * Adds one query to the histograms.
+     * @param stats the counters of a single query
+     * @spec.requires stats != null
+     * @spec.modifies this
+     */
+    public void record(SearchStats stats) {
+        nodesSettled.record(stats.getNodesSettled());
+        edgesRelaxed.record(stats.getEdgesRelaxed());
+        heapPushes.record(stats.getHeapPushes());
+        heapPops.record(stats.getHeapPops());
+        maxFrontier.record(stats.getMaxFrontier());
+        allocatedBytes.record(stats.getAllocatedBytes());
+        elapsedNanos.record(stats.getElapsedNanos());
+    }
+
+    /**
+     * @return the number of queries recorded
+     */
+    public long getQueries() {
+        return elapsedNanos.getCount();
+    }
+
+    /**
+     * @return the histogram of nodes settled per query
+     */
+    public LogHistogram getNodesSettled() {
+        return nodesSettled;
+    }
+
+    /**
+     * @return the histogram of edges relaxed per query
+     */
+    public LogHistogram getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * @return the histogram of heap pushes per query
+     */
+    public LogHistogram getHeapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * @return the histogram of heap pops per query
+     */
+    public LogHistogram getHeapPops() {
+        return heapPops;
+    }
+
+    /**
+     * @return the histogram of the largest frontier of each query
+     */
+    public LogHistogram getMaxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * @return the histogram of bytes allocated per query
+     */
+    public LogHistogram getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the histogram of elapsed nanoseconds per query
+     */
+    public LogHistogram getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return for each histogram, by name, its count, mean, median, 90th and 99th percentiles
+     * and maximum
+     */
+    public Map<String, Map<String, Number>> summary() {
+        Map<String, Map<String, Number>> ret = new LinkedHashMap<>();
+        ret.put("nodesSettled", summary(nodesSettled));
+        ret.put("edgesRelaxed", summary(edgesRelaxed));
+        ret.put("heapPushes", summary(heapPushes));
+        ret.put("heapPops", summary(heapPops));
+        ret.put("maxFrontier", summary(maxFrontier));
+        ret.put("allocatedBytes", summary(allocatedBytes));
+        ret.put("elapsedNanos", summary(elapsedNanos));
+        return ret;
+    }
+
+    private static Map<String, Number> summary(LogHistogram histogram) {
+        Map<String, Number> ret = new LinkedHashMap<>();
+        ret.put("count", histogram.getCount());
+        ret.put("mean", histogram.getMean());
+        ret.put("p50", histogram.getPercentile(0.5));
+        ret.put("p90", histogram.getPercentile(0.9));
+        ret.put("p99", histogram.getPercentile(0.99));
+        ret.put("max", histogram.getMax());
+        return ret;
+    }
+
+    /**
+     * Removes every recorded query.
+     * @spec.modifies this
+     */
+    public void reset() {
+        nodesSettled.reset();
+        edgesRelaxed.reset();
+        heapPushes.reset();
+        heapPops.reset();
+        maxFrontier.reset();
+        allocatedBytes.reset();
+        elapsedNanos.reset();
+    }
+}
@@ -0,0 +1,37 @@
+package pathfinder;
+
+/**
+ * Represents the search algorithm a CampusMap uses to answer shortest path queries.
+ */
+public enum SearchMode {
+
+    /**
+     * Plain Dijkstra search, which explores outward from the start in every direction.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* search guided by the straight-line distance to the destination.
+     */
+    ASTAR,
+
+    /**
+     * Dijkstra search run from both ends at once until the two searches meet.
+     */
+    BIDIRECTIONAL,
+
+    /**
+     * Bidirectional search over a contraction hierarchy built once for the whole campus.
+     */
+    CONTRACTION_HIERARCHY,
+
+    /**
+     * A* search guided by precomputed distances to and from a few landmark points (ALT).
+     */
+    ALT,
+
+    /**
+     * Lookup in a table of the routes between every pair of buildings, computed once.
+     */
+    ROUTE_TABLE
+}
@@ -0,0 +1,201 @@
+package pathfinder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Represents mutable counters describing the work done by one or more shortest path searches.
+ * Search methods accept a SearchStats to add their counts to, or null to skip counting, so
+ * searches without one do no counting or timing at all.
+ * <p>
+ * A SearchStats is not thread-safe; use one per thread, or one per query and combine them
+ * afterwards, as SearchMetrics does.
+ */
+public class SearchStats {
+
+    // allocation counting is a HotSpot extension, so it may be missing
+    private static final com.sun.management.ThreadMXBean threads;
+
+    static {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        threads = bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    // RI: every counter >= 0, maxFrontier <= heapPushes
+    // AF(this) = queries searches (or sequence of searches) which together removed heapPops
+    //            nodes from their frontiers, nodesSettled of them with their final distances,
+    //            examined edgesRelaxed edges, inserted or lowered a node in a frontier
+    //            heapPushes times, held at most maxFrontier nodes in a frontier at once, and
+    //            took elapsedNanos and allocatedBytes of the calling thread to do so.
+    //            If a query is running, it started at queryStartNanos having allocated
+    //            queryStartBytes.
+
+    private long nodesSettled;
+    private long edgesRelaxed;
+    private long heapPushes;
+    private long heapPops;
+    private int maxFrontier;
+    private long queries;
+    private long elapsedNanos;
+    private long allocatedBytes;
+    private long queryStartNanos;
+    private long queryStartBytes;
+
+    /**
+     * Creates counters that start at zero.
+     */
+    public SearchStats() {
+        reset();
+    }
+
+    /**
+     * Records that a search started, so that its time and allocations are counted.
+     * @spec.modifies this
+     */
+    void queryStarted() {
+        queryStartBytes = allocatedBytesNow();
+        queryStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Records that the search started by the last call to queryStarted finished.
+     * @spec.modifies this
+     * @spec.effects increments the number of queries and adds the time and memory used by it
+     */
+    void queryFinished() {
+        elapsedNanos += System.nanoTime() - queryStartNanos;
+        allocatedBytes += Math.max(allocatedBytesNow() - queryStartBytes, 0);
+        queries++;
+    }
+
+    /**
+     * Records that a search settled one more node.
+     * @spec.modifies this
+     * @spec.effects increments the number of nodes settled
+     */
+    void nodeSettled() {
+        nodesSettled++;
+    }
+
+    /**
+     * Records that a search removed one node from its frontier.
+     * @spec.modifies this
+     * @spec.effects increments the number of heap pops
+     */
+    void heapPopped() {
+        heapPops++;
+    }
+
+    /**
+     * Records that a search examined one more edge.
+     * @spec.modifies this
+     * @spec.effects increments the number of edges relaxed
+     */
+    void edgeRelaxed() {
+        edgesRelaxed++;
+    }
+
+    /**
+     * Records that a search inserted a node into its frontier or lowered its priority there.
+     * @param frontierSize the number of nodes in the frontier afterwards
+     * @spec.modifies this
+     * @spec.effects increments the number of heap pushes, and raises the largest frontier size
+     * to frontierSize
+     */
+    void heapPushed(int frontierSize) {
+        heapPushes++;
+        if (frontierSize > maxFrontier) maxFrontier = frontierSize;
+    }
+
+    /**
+     * @return the number of nodes settled since this was created or last reset
+     */
+    public long getNodesSettled() {
+        return nodesSettled;
+    }
+
+    /**
+     * @return the number of edges examined since this was created or last reset
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * @return the number of frontier inserts and decrease-keys since this was created or last
+     * reset
+     */
+    public long getHeapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * @return the number of nodes removed from a frontier since this was created or last reset
+     */
+    public long getHeapPops() {
+        return heapPops;
+    }
+
+    /**
+     * @return the largest number of nodes held in a search's frontier at once since this was
+     * created or last reset
+     */
+    public int getMaxFrontier() {
+        return maxFrontier;
+    }
+
+    /**
+     * @return the number of searches timed since this was created or last reset
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return the wall-clock time taken by the searches timed since this was created or last
+     * reset, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the bytes allocated by the searches timed since this was created or last reset,
+     * or 0 if this JVM cannot measure allocations
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Sets every counter back to zero.
+     * @spec.modifies this
+     */
+    public void reset() {
+        nodesSettled = 0;
+        edgesRelaxed = 0;
+        heapPushes = 0;
+        heapPops = 0;
+        maxFrontier = 0;
+        queries = 0;
+        elapsedNanos = 0;
+        allocatedBytes = 0;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or 0 if that cannot be measured
+     */
+    private static long allocatedBytesNow() {
+        if (threads == null) return 0;
+        return Math.max(threads.getThreadAllocatedBytes(Thread.currentThread().getId()), 0);
+    }
+
+    @Override
+    public String toString() {
+        return "settled=" + nodesSettled + " relaxed=" + edgesRelaxed + " pushes=" + heapPushes
+                + " pops=" + heapPops + " maxFrontier=" + maxFrontier + " queries=" + queries
+                + " nanos=" + elapsedNanos + " bytes=" + allocatedBytes;
+    }
+}
@@ -0,0 +1,337 @@
+package pathfinder;
+
+import graph.FrozenGraph;
+import graph.Graph;
+import graph.GraphView;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.*;
+
+/**
+ * Represents the scratch state of one search over a graph's dense node indices (see
+ * Graph.indexOf): each node's tentative distance, parent, cost of the edge from its parent,
+ * heuristic estimate and whether it is settled, plus the heap of unsettled nodes.
+ * <p>
+ * A workspace is reused by later searches. Starting a new search takes O(1) time: rather than
+ * clearing the arrays, it moves to a new generation, and any entry stamped with an older
+ * generation counts as unreached. So a stream of searches allocates nothing here once the
+ * arrays have grown to the size of the graph.
+ * <p>
+ * A search started with reset(graph) also reads the graph through its workspace. If the graph
+ * asks to be searched frozen (see GraphView.freezeForSearch), node ids are the snapshot's
+ * indices and edges are read from it. Otherwise nodes get ids in the order the search reaches
+ * them, as in ShortestPathTree, and each settled node's edges are read with viewChildren into
+ * buffers kept here, so a search pays only for the part of the graph it explores.
+ * <p>
+ * A workspace is not thread-safe; each thread needs its own, as given by Dijkstra.workspace().
+ */
+final class SearchWorkspace {
+
+    // RI: dist, parent, parentCost, estimate, reached, settled, target all have the same length,
+    //     heap != null, every id in heap has reached[id] == generation and
+    //     settled[id] != generation, settled[id] == generation implies reached[id] == generation
+    // AF(this) = the nodes i with reached[i] == generation, each at distance dist[i] by an edge
+    //            of cost parentCost[i] from node parent[i] (or a root if parent[i] == -1), with
+    //            heuristic estimate estimate[i], and final iff settled[i] == generation, and
+    //            the nodes i with target[i] == generation are the search's targets
+    //
+    // During a search started by reset(graph), frozen is graph's snapshot if it is read frozen,
+    // and otherwise live is graph, node i is labels.get(i) and ids maps labels to their ids.
+    // The edges loaded by the last edgeStart go to edgeTarget[0 .. edgeCount - 1] with
+    // weights edgeWeight[0 .. edgeCount - 1].
+
+    private double[] dist = new double[0];
+    private int[] parent = new int[0];
+    private double[] parentCost = new double[0];
+    private double[] estimate = new double[0];
+    private int[] reached = new int[0];
+    private int[] settled = new int[0];
+    private int[] target = new int[0];
+    private int generation = 0;
+    private final IndexedMinHeap heap = new IndexedMinHeap(16);
+    private int[] trail = new int[0];
+    private int[] stack = new int[0];
+
+    private FrozenGraph<?, Double> frozen;
+    private GraphView<?, Double> live;
+    private final Map<Object, Integer> ids = new HashMap<>();
+    private final List<Object> labels = new ArrayList<>();
+    private int[] edgeTarget = new int[0];
+    private double[] edgeWeight = new double[0];
+    private int edgeCount;
+
+    /**
+     * Forgets every node reached and makes room for nodes 0 .. nodeCount - 1, keeping the
+     * allocated space for the next search.
+     * @param nodeCount the number of nodes of the graph to search
+     * @spec.modifies this
+     */
+    void reset(int nodeCount) {
+        frozen = null;
+        live = null;
+        ids.clear();
+        labels.clear();
+        ensure(nodeCount);
+        heap.clear();
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // stamps are about to wrap around, so clear them for real once every 2^31 searches
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            Arrays.fill(target, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Forgets every node reached and starts a search of graph, read as graph.freezeForSearch()
+     * asks. Ids of graph's nodes are then given by idOf.
+     * @param graph the graph to search
+     * @spec.requires graph != null
+     * @spec.modifies this
+     */
+    void reset(GraphView<?, Double> graph) {
+        if (graph.freezeForSearch()) {
+            FrozenGraph<?, Double> snapshot = graph.freeze();
+            reset(snapshot.nodeCount());
+            frozen = snapshot;
+        } else {
+            reset(0);
+            live = graph;
+        }
+    }
+
+    /**
+     * Grows the arrays to hold at least nodeCount nodes.
+     */
+    private void ensure(int nodeCount) {
+        if (nodeCount > reached.length) {
+            int length = Math.max(nodeCount, 2 * reached.length);
+            dist = Arrays.copyOf(dist, length);
+            parent = Arrays.copyOf(parent, length);
+            parentCost = Arrays.copyOf(parentCost, length);
+            estimate = Arrays.copyOf(estimate, length);
+            reached = Arrays.copyOf(reached, length);
+            settled = Arrays.copyOf(settled, length);
+            target = Arrays.copyOf(target, length);
+        }
+    }
+
+    /**
+     * @param node a node of the graph of the current search
+     * @return the id of node in this search, giving it a new, unreached id if it has none yet
+     * @spec.requires the search was started with reset(graph)
+     * @spec.modifies this
+     */
+    @SuppressWarnings("unchecked")
+    int idOf(Object node) {
+        if (frozen != null)
+            return ((FrozenGraph<Object, Double>) frozen).indexOf(node);
+        Integer id = ids.get(node);
+        if (id != null) return id;
+
+        int next = labels.size();
+        ensure(next + 1);
+        ids.put(node, next);
+        labels.add(node);
+        return next;
+    }
+
+    /**
+     * @param <T> the type of the graph's node labels
+     * @param id the id of a node in this search
+     * @return the label of the node with the given id
+     * @spec.requires the search was started with reset(graph) for a graph whose labels are T
+     */
+    @SuppressWarnings("unchecked")
+    <T> T node(int id) {
+        return (T) (frozen != null ? frozen.nodeAt(id) : labels.get(id));
+    }
+
+    /**
+     * Makes the edges leaving node id readable as edges edgeStart(id) .. edgeEnd(id) - 1,
+     * loading them from the graph if it is not read frozen.
+     * @param id the id of a node in this search
+     * @return the number of the first edge leaving node id
+     * @spec.requires the search was started with reset(graph)
+     * @spec.modifies this
+     */
+    @SuppressWarnings("unchecked")
+    int edgeStart(int id) {
+        if (frozen != null)
+            return frozen.edgeStart(id);
+
+        edgeCount = 0;
+        for (Graph.Edge<Object, Double> edge : ((GraphView<Object, Double>) live).viewChildren(labels.get(id))) {
+            if (edgeCount == edgeTarget.length) {
+                edgeTarget = Arrays.copyOf(edgeTarget, Math.max(8, 2 * edgeCount));
+                edgeWeight = Arrays.copyOf(edgeWeight, edgeTarget.length);
+            }
+            edgeTarget[edgeCount] = idOf(edge.getdstName());
+            edgeWeight[edgeCount] = edge.getLabel();
+            edgeCount++;
+        }
+        return 0;
+    }
+
+    /**
+     * @param id the id of a node in this search
+     * @return one past the number of the last edge leaving node id
+     * @spec.requires edgeStart(id) was the last call of edgeStart
+     */
+    int edgeEnd(int id) {
+        return frozen != null ? frozen.edgeEnd(id) : edgeCount;
+    }
+
+    /**
+     * @param edge the number of an edge made readable by the last call of edgeStart
+     * @return the id of the node edge goes to
+     */
+    int target(int edge) {
+        return frozen != null ? frozen.target(edge) : edgeTarget[edge];
+    }
+
+    /**
+     * @param edge the number of an edge made readable by the last call of edgeStart
+     * @return the cost of edge
+     */
+    double weight(int edge) {
+        return frozen != null ? frozen.weight(edge) : edgeWeight[edge];
+    }
+
+    /**
+     * @return the heap of unsettled node indices, by priority
+     */
+    IndexedMinHeap heap() {
+        return heap;
+    }
+
+    /**
+     * @param length the number of entries needed
+     * @return an array of at least length ints for the caller to use until the next call, such
+     * as for reversing a chain of parents
+     */
+    int[] trail(int length) {
+        if (length > trail.length) {
+            trail = new int[Math.max(length, 2 * trail.length)];
+        }
+        return trail;
+    }
+
+    /**
+     * @param length the number of entries needed
+     * @return an array of at least length ints for the caller to use as a stack until the next
+     * call, holding the same first entries as the array returned by the previous call
+     */
+    int[] stack(int length) {
+        if (length > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(length, 2 * stack.length));
+        }
+        return stack;
+    }
+
+    /**
+     * @return true if node id has been reached by the current search
+     */
+    boolean isReached(int id) {
+        return reached[id] == generation;
+    }
+
+    /**
+     * Reaches node id at infinite distance with no parent.
+     * @spec.requires id is not yet reached
+     * @spec.modifies this
+     */
+    void reach(int id) {
+        reached[id] = generation;
+        dist[id] = Double.POSITIVE_INFINITY;
+        parent[id] = -1;
+    }
+
+    /**
+     * @return the current distance of node id
+     * @spec.requires id is reached
+     */
+    double dist(int id) {
+        return dist[id];
+    }
+
+    /**
+     * @return the node before id on its current path, or -1 if it has none
+     * @spec.requires id is reached
+     */
+    int parent(int id) {
+        return parent[id];
+    }
+
+    /**
+     * @return the cost of the edge from parent(id) to id
+     * @spec.requires id is reached and parent(id) != -1
+     */
+    double parentCost(int id) {
+        return parentCost[id];
+    }
+
+    /**
+     * Records a shorter path to node id through node from, using an edge of cost cost, or a
+     * path of length newDist from a root if from == -1.
+     * @spec.requires id is reached
+     * @spec.modifies this
+     */
+    void update(int id, double newDist, int from, double cost) {
+        dist[id] = newDist;
+        parent[id] = from;
+        parentCost[id] = cost;
+    }
+
+    /**
+     * @return the heuristic estimate stored for node id
+     * @spec.requires id is reached
+     */
+    double estimate(int id) {
+        return estimate[id];
+    }
+
+    /**
+     * Stores the heuristic estimate of node id.
+     * @spec.requires id is reached
+     * @spec.modifies this
+     */
+    void setEstimate(int id, double value) {
+        estimate[id] = value;
+    }
+
+    /**
+     * @return true if the distance of node id is final
+     */
+    boolean isSettled(int id) {
+        return settled[id] == generation;
+    }
+
+    /**
+     * Marks node id as one of the targets of the current search.
+     * @return true if it was not already a target
+     * @spec.modifies this
+     */
+    boolean markTarget(int id) {
+        if (target[id] == generation) return false;
+        target[id] = generation;
+        return true;
+    }
+
+    /**
+     * @return true if node id is a target of the current search
+     */
+    boolean isTarget(int id) {
+        return target[id] == generation;
+    }
+
+    /**
+     * Marks the distance of node id as final.
+     * @spec.requires id is reached
+     * @spec.modifies this
+     */
+    void settle(int id) {
+        settled[id] = generation;
+    }
+}
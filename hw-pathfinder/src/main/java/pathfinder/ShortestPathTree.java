@@ -0,0 +1,255 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+
+/**
+ * Represents the shortest paths found by a search from a single root node. Each reached node
+ * stores its distance from the root and the last edge of its shortest path, so the paths to
+ * all nodes share their common prefixes.
+ * <p>
+ * A tree is built by one search, such as Dijkstra.shortestPathTree, and can then answer any
+ * number of distance and path queries from its root without searching again.
+ * <p>
+ * Nodes get a dense id in the order they are first reached, so a search only pays for the part
+ * of the graph it explores. The package-private methods are used by searches to grow the tree.
+ */
+public class ShortestPathTree<T> {
+
+    // RI: ids, nodes, settled != null, nodes.size() == ids.size(), ids.get(nodes.get(i)) == i,
+    //     dist, parent, parentCost have length >= nodes.size(), parent[0] == -1, and
+    //     0 <= parent[i] < nodes.size() for every other reached i
+    // AF(this) = a tree rooted at nodes.get(0) where each node nodes.get(i) is reached at
+    //            distance dist[i] by an edge of cost parentCost[i] from nodes.get(parent[i]),
+    //            and that distance is final iff settled.get(i)
+
+    private final Map<T, Integer> ids;
+    private final List<T> nodes;
+    private double[] dist;
+    private int[] parent;
+    private double[] parentCost;
+    private final BitSet settled;
+
+    /**
+     * Creates a tree containing only root, at distance 0.
+     * @param root the node every path in this tree starts from
+     * @spec.requires root != null
+     */
+    ShortestPathTree(T root) {
+        this(16);
+        add(root);
+        dist[0] = 0;
+    }
+
+    private ShortestPathTree(int capacity) {
+        ids = new HashMap<>();
+        nodes = new ArrayList<>();
+        dist = new double[capacity];
+        parent = new int[capacity];
+        parentCost = new double[capacity];
+        settled = new BitSet();
+    }
+
+    /**
+     * @return the node every path in this tree starts from
+     */
+    public T getRoot() {
+        return nodes.get(0);
+    }
+
+    /**
+     * @param node the node to look up
+     * @return true if this tree holds a final shortest path to node, else false
+     */
+    public boolean reaches(T node) {
+        int id = idOf(node);
+        return id >= 0 && settled.get(id);
+    }
+
+    /**
+     * @param node the node to look up
+     * @return the length of the shortest path from the root to node, or infinity if this tree
+     * does not reach node
+     */
+    public double distanceTo(T node) {
+        return reaches(node) ? dist[idOf(node)] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node the node to look up
+     * @return the shortest path from the root to node, or null if this tree does not reach node
+     */
+    public Path<T> pathTo(T node) {
+        if (!reaches(node)) return null;
+        int id = idOf(node);
+        int depth = 0;
+        for (int step = id; parent[step] != -1; step = parent[step]) {
+            depth++;
+        }
+        return pathTo(id, null, new int[depth]);
+    }
+
+    /**
+     * Returns the paths to the given nodes, built together so that they share the segments of
+     * their common prefixes.
+     * @param targets the nodes whose paths to build
+     * @return a map from each node of targets that this tree reaches to its shortest path from
+     * the root
+     */
+    Map<T, Path<T>> pathsTo(Collection<T> targets) {
+        @SuppressWarnings("unchecked")
+        Path<T>[] built = (Path<T>[]) new Path<?>[nodes.size()];
+        int[] steps = new int[nodes.size()];
+        Map<T, Path<T>> paths = new HashMap<>();
+        for (T node : targets) {
+            if (reaches(node))
+                paths.put(node, pathTo(idOf(node), built, steps));
+        }
+        return paths;
+    }
+
+    /**
+     * @param id the id of a settled node
+     * @param built null, or the paths built so far by id, to reuse and add to
+     * @param steps room for the ids of the nodes on the path that are not yet built
+     * @return the shortest path from the root to the node with id id
+     */
+    private Path<T> pathTo(int id, Path<T>[] built, int[] steps) {
+        int count = 0;
+        int start = id;
+        while ((built == null || built[start] == null) && parent[start] != -1) {
+            steps[count++] = start;
+            start = parent[start];
+        }
+
+        Path<T> path = built != null && built[start] != null ? built[start] : new Path<>(nodes.get(start));
+        while (count > 0) {
+            int step = steps[--count];
+            path = path.extend(nodes.get(step), parentCost[step]);
+            if (built != null) built[step] = path;
+        }
+        return path;
+    }
+
+    /**
+     * Returns a smaller copy of this tree holding only the paths to the given nodes.
+     * @param keep the nodes whose paths to keep
+     * @return a tree which reaches exactly the nodes of keep that this reaches, and the nodes
+     * on their paths
+     */
+    ShortestPathTree<T> prune(Collection<T> keep) {
+        // mark every settled node on a kept path, then copy them
+        BitSet marked = new BitSet();
+        for (T node : keep) {
+            int id = idOf(node);
+            if (id < 0 || !settled.get(id)) continue;
+            while (id != -1 && !marked.get(id)) {
+                marked.set(id);
+                id = parent[id];
+            }
+        }
+
+        ShortestPathTree<T> ret = new ShortestPathTree<>(Math.max(marked.cardinality(), 1));
+        int[] newId = new int[nodes.size()];
+        for (int id = marked.nextSetBit(0); id >= 0; id = marked.nextSetBit(id + 1)) {
+            newId[id] = ret.add(nodes.get(id));
+        }
+        // a parent may have been reached after its child, so link parents once all are copied
+        for (int id = marked.nextSetBit(0); id >= 0; id = marked.nextSetBit(id + 1)) {
+            int copy = newId[id];
+            ret.dist[copy] = dist[id];
+            ret.parent[copy] = parent[id] == -1 ? -1 : newId[parent[id]];
+            ret.parentCost[copy] = parentCost[id];
+            ret.settled.set(copy);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the number of nodes reached by this tree
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @param src the start of an edge
+     * @param dst the end of an edge
+     * @return true if the shortest path in this tree to dst ends with an edge from src, so a
+     * change to that edge may change the paths of this tree
+     */
+    boolean usesEdge(T src, T dst) {
+        int id = idOf(dst);
+        return id >= 0 && settled.get(id) && parent[id] != -1 && nodes.get(parent[id]).equals(src);
+    }
+
+    /**
+     * @param node the node to look up
+     * @return the id of node, or -1 if it has not been reached
+     */
+    int idOf(T node) {
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Reaches a new node at infinite distance.
+     * @param node the node to add
+     * @return the id of node
+     * @spec.requires node is not yet reached
+     * @spec.modifies this
+     */
+    int add(T node) {
+        int id = nodes.size();
+        ids.put(node, id);
+        nodes.add(node);
+        if (id == dist.length) {
+            dist = Arrays.copyOf(dist, 2 * id);
+            parent = Arrays.copyOf(parent, 2 * id);
+            parentCost = Arrays.copyOf(parentCost, 2 * id);
+        }
+        dist[id] = Double.POSITIVE_INFINITY;
+        parent[id] = -1;
+        return id;
+    }
+
+    /**
+     * @return the node with the given id
+     */
+    T node(int id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * @return the current distance of the node with the given id
+     */
+    double dist(int id) {
+        return dist[id];
+    }
+
+    /**
+     * @return true if the distance of the node with the given id is final
+     */
+    boolean isSettled(int id) {
+        return settled.get(id);
+    }
+
+    /**
+     * Marks the distance of the node with the given id as final.
+     * @spec.modifies this
+     */
+    void settle(int id) {
+        settled.set(id);
+    }
+
+    /**
+     * Records a shorter path to node id through node from, using an edge of cost cost.
+     * @spec.modifies this
+     */
+    void update(int id, double newDist, int from, double cost) {
+        dist[id] = newDist;
+        parent[id] = from;
+        parentCost[id] = cost;
+    }
+}
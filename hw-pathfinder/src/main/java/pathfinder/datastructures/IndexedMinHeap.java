@@ -0,0 +1,191 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a mutable binary min-heap of non-negative int ids, each with a double priority.
+ * Unlike java.util.PriorityQueue, an id can be located in O(1) so that its priority can be
+ * lowered in place (decrease-key) instead of inserting a duplicate entry.
+ */
+public class IndexedMinHeap {
+
+    private static final boolean DEBUG = false;
+
+    // The heap is stored in the first size slots of heap, ordered by priority[heap[i]].
+    // pos maps each id to its slot in heap, or -1 if the id is not in this heap.
+    //
+    // RI: 0 <= size <= heap.length, pos.length == priority.length,
+    //     for all 0 <= i < size, pos[heap[i]] == i,
+    //     for all 0 < i < size, priority[heap[(i - 1) / 2]] <= priority[heap[i]]
+    // AF(this) = {(heap[i], priority[heap[i]]) | 0 <= i < size}
+
+    private int[] heap;
+    private int[] pos;
+    private double[] priority;
+    private int size;
+
+    /**
+     * Creates an empty heap which can hold ids in [0, capacity) before growing.
+     * @param capacity the initial number of ids this heap can hold
+     * @spec.requires capacity >= 0
+     */
+    public IndexedMinHeap(int capacity) {
+        capacity = Math.max(capacity, 1);
+        heap = new int[capacity];
+        pos = new int[capacity];
+        priority = new double[capacity];
+        Arrays.fill(pos, -1);
+        size = 0;
+    }
+
+    /**
+     * @return the number of ids in this heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if this heap contains no ids, else false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id the id to look up
+     * @return true if id is in this heap, else false
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < pos.length && pos[id] >= 0;
+    }
+
+    /**
+     * Adds id with the given priority, or lowers the priority of id if it is already present
+     * with a larger one. Does nothing if id is present with a priority no larger than p.
+     * @param id the id to add or update
+     * @param p the new priority of id
+     * @spec.requires id >= 0
+     * @spec.modifies this
+     * @spec.effects id is in this with priority min(p, old priority of id)
+     */
+    public void insertOrDecrease(int id, double p) {
+        if (DEBUG) checkRep();
+
+        if (contains(id)) {
+            if (p < priority[id]) {
+                priority[id] = p;
+                siftUp(pos[id]);
+            }
+        } else {
+            ensureCapacity(id + 1);
+            priority[id] = p;
+            heap[size] = id;
+            pos[id] = size;
+            size++;
+            siftUp(size - 1);
+        }
+
+        if (DEBUG) checkRep();
+    }
+
+    /**
+     * @return the smallest priority in this heap
+     * @throws NoSuchElementException if this heap is empty
+     */
+    public double peekPriority() {
+        if (size == 0)
+            throw new NoSuchElementException("Heap is empty");
+        return priority[heap[0]];
+    }
+
+    /**
+     * Removes the id with the smallest priority.
+     * @return the removed id
+     * @throws NoSuchElementException if this heap is empty
+     * @spec.modifies this
+     */
+    public int removeMin() {
+        if (DEBUG) checkRep();
+
+        if (size == 0)
+            throw new NoSuchElementException("Heap is empty");
+        int min = heap[0];
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        pos[min] = -1;
+
+        if (DEBUG) checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from this heap.
+     * @spec.modifies this
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= pos.length) return;
+        int newLength = Math.max(capacity, pos.length * 2);
+        int oldLength = pos.length;
+        heap = Arrays.copyOf(heap, newLength);
+        pos = Arrays.copyOf(pos, newLength);
+        priority = Arrays.copyOf(priority, newLength);
+        Arrays.fill(pos, oldLength, newLength, -1);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        double p = priority[id];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentId = heap[parent];
+            if (priority[parentId] <= p) break;
+            heap[i] = parentId;
+            pos[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        double p = priority[id];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && priority[heap[right]] < priority[heap[child]])
+                child = right;
+            int childId = heap[child];
+            if (p <= priority[childId]) break;
+            heap[i] = childId;
+            pos[childId] = i;
+            i = child;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void checkRep() {
+        assert heap != null && pos != null && priority != null : "arrays are null!";
+        assert size >= 0 && size <= heap.length : "size out of range!";
+        for (int i = 0; i < size; i++) {
+            assert pos[heap[i]] == i : "pos is inconsistent with heap!";
+            if (i > 0)
+                assert priority[heap[(i - 1) / 2]] <= priority[heap[i]] : "heap order violated!";
+        }
+    }
+}
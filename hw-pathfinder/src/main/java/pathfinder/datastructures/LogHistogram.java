@@ -0,0 +1,108 @@
+package pathfinder.datastructures;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a thread-safe histogram of non-negative long values, with one bucket per power of
+ * two. Recording a value takes constant time and allocates nothing, so it is cheap enough to
+ * call once per request from many threads. Percentiles are approximate: each is reported as
+ * the upper bound of the bucket it falls in, which is less than twice the true value.
+ */
+public class LogHistogram {
+
+    // Bucket 0 counts the value 0, and bucket i > 0 counts values in [2^(i-1), 2^i).
+    //
+    // RI: buckets.length == 65, count == sum of the buckets' counts, max >= every value recorded
+    // AF(this) = a multiset of count values, of which buckets[i] lie in bucket i, adding up to
+    //            sum, the largest being max
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LogHistogram() {
+        buckets = new LongAdder[65];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Adds a value to this histogram. Negative values are recorded as 0.
+     * @param value the value to add
+     * @spec.modifies this
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0 if there are none
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * @return the largest value recorded, or 0 if there are none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param q the fraction of values to be at or below the result
+     * @return an upper bound, less than twice the true value, on the smallest recorded value
+     * which at least a fraction q of the values are at or below, or 0 if there are none
+     * @throws IllegalArgumentException if q is not between 0 and 1
+     */
+    public long getPercentile(double q) {
+        if (!(q >= 0 && q <= 1))
+            throw new IllegalArgumentException("q must be between 0 and 1");
+        long n = count.sum();
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank && seen > 0) {
+                long upper = i == 0 ? 0 : (i == 64 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upper, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes every value from this histogram. Values recorded during the call may or may not
+     * be removed.
+     * @spec.modifies this
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
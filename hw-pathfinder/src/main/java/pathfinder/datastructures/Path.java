@@ -11,14 +11,18 @@
 
 package pathfinder.datastructures;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ * <p>
+ * Paths are persistent: a path made by extend shares all of its segments but the last with
+ * the path it extends, so extending takes constant time and space however long the path is.
  */
 public class Path<T> implements Iterable<Path<T>.Segment<T>> {
 
@@ -40,17 +44,18 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private T start;
+    private final T start;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The ordered sequence of segments representing a path between points, sharing all but
+     * its last segment with the path this was extended from.
      */
-    private List<Segment<T>> path;
+    private final Segments<Segment<T>> path;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -59,9 +64,13 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
      * @param start The starting point of the path.
      */
     public Path(T start) {
+        this(start, 0, new Segments<>());
+    }
+
+    private Path(T start, double cost, Segments<Segment<T>> path) {
         this.start = start;
-        this.cost = 0;
-        this.path = new ArrayList<>();
+        this.cost = cost;
+        this.path = path;
         checkRep();
     }
 
@@ -70,7 +79,7 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
      * to the existing path is {@code segmentCost}. Thus, the returned Path represents a path
      * from {@code this.getStart()} to {@code newEnd}, with a cost of {@code this.getCost() +
-     * segmentCost}.
+     * segmentCost}. Takes constant time, as the new path shares this path's segments.
      *
      * @param newEnd      The point being added at the end of the segment being appended to this path
      * @param segmentCost The cost of the segment being added to the end of this path.
@@ -78,16 +87,8 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
      */
     public Path<T> extend(T newEnd, double segmentCost) {
         checkRep();
-        //
-        Path<T> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment<T>(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
-        //
-        extendedPath.checkRep();
-        checkRep();
-        //
-        return extendedPath;
+        Segment<T> segment = new Segment<T>(this.getEnd(), newEnd, segmentCost);
+        return new Path<>(start, this.cost + segmentCost, path.append(segment));
     }
 
     /**
@@ -112,7 +113,14 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
         if(path.size() == 0) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return path.last().getEnd();
+    }
+
+    /**
+     * @return The number of segments in this path.
+     */
+    public int size() {
+        return path.size();
     }
 
     /**
@@ -124,40 +132,20 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
      */
     @Override
     public Iterator<Segment<T>> iterator() {
-        // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
-        return new Iterator<Segment<T>>() {
-
-            private Iterator<Segment<T>> backingIterator = path.iterator();
-
-            @Override
-            public boolean hasNext() {
-                return backingIterator.hasNext();
-            }
-
-            @Override
-            public Path<T>.Segment<T> next() {
-                return backingIterator.next();
-            }
-
-            @Override
-            public void remove() {
-                throw new UnsupportedOperationException("Paths may not be modified.");
-            }
-        };
+        return path.iterator();
     }
 
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
-     * there is no violation.
+     * there is no violation. Only the newest segment is checked, since the others belong to a
+     * path which was already checked and cannot have changed.
      */
     private void checkRep() {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
         assert path != null;
-        for(Segment<T> segment : path) {
-            assert segment != null;
-        }
+        assert path.size() == 0 || path.last() != null;
     }
 
     /**
@@ -180,15 +168,10 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
         if(this.path.size() != other.path.size()) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
-            return false;
-        }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
-                return false;
-            }
+        if(this.path.size() == 0) {
+            return this.start.equals(other.start);
         }
-        return true;
+        return this.path.equals(other.path);
     }
 
     @Override
@@ -196,6 +179,125 @@ public class Path<T> implements Iterable<Path<T>.Segment<T>> {
         return (31 * start.hashCode()) + path.hashCode();
     }
 
+    /**
+     * An immutable list which shares all its elements but the last with the list it was
+     * appended to, and caches its hash code. Serializes like any other list, so a Path still
+     * serializes as its start, cost and list of segments.
+     */
+    private static final class Segments<S> extends AbstractList<S> {
+
+        // AF(this) = prefix's elements followed by last, or [] if prefix == null
+        // RI: size == 0 iff prefix == null, size == prefix.size + 1 otherwise,
+        //     hash == the java.util.List hash code of this
+
+        private final Segments<S> prefix;
+        private final S last;
+        private final int size;
+        private final int hash;
+
+        Segments() {
+            this.prefix = null;
+            this.last = null;
+            this.size = 0;
+            this.hash = 1;
+        }
+
+        private Segments(Segments<S> prefix, S last) {
+            this.prefix = prefix;
+            this.last = last;
+            this.size = prefix.size + 1;
+            this.hash = 31 * prefix.hash + last.hashCode();
+        }
+
+        /**
+         * @return this list with element added to the end, in constant time
+         */
+        Segments<S> append(S element) {
+            return new Segments<>(this, element);
+        }
+
+        /**
+         * @return the last element of this list
+         * @spec.requires size() > 0
+         */
+        S last() {
+            return last;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public S get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("index " + index + " out of range");
+            Segments<S> node = this;
+            for (int i = size - 1; i > index; i--) {
+                node = node.prefix;
+            }
+            return node.last;
+        }
+
+        @Override
+        public Iterator<S> iterator() {
+            // walk back from the end once, so that iterating takes linear time
+            Object[] elements = new Object[size];
+            Segments<S> node = this;
+            for (int i = size - 1; i >= 0; i--) {
+                elements[i] = node.last;
+                node = node.prefix;
+            }
+            return new Iterator<S>() {
+
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < elements.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public S next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return (S) elements[next++];
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException("Paths may not be modified.");
+                }
+            };
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Segments)) {
+                return obj instanceof List && super.equals(obj);
+            }
+            // compare from the end, stopping early where the two lists share their prefix
+            Segments<?> a = this;
+            Segments<?> b = (Segments<?>) obj;
+            if (a.size != b.size || a.hash != b.hash)
+                return false;
+            while (a != b && a.size > 0) {
+                if (!a.last.equals(b.last))
+                    return false;
+                a = a.prefix;
+                b = b.prefix;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
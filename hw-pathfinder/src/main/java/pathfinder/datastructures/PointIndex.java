@@ -0,0 +1,201 @@
+package pathfinder.datastructures;
+
+import java.util.*;
+
+/**
+ * Represents an immutable set of points which can be searched for the points nearest to any
+ * location, by straight-line distance.
+ * <p>
+ * The points are kept in a balanced 2-d tree, so a nearest point query takes O(log n) time on
+ * average and a query for the k nearest takes about O(k log n).
+ */
+public class PointIndex {
+
+    private static final boolean DEBUG = false;
+
+    // The tree is stored implicitly in points: the subtree over points[lo, hi) has its root at
+    // mid = (lo + hi) / 2, the left subtree over [lo, mid) and the right over [mid + 1, hi).
+    // A subtree at depth d splits on x if d is even, else on y.
+    //
+    // RI: points != null, no element of points is null, and for each subtree [lo, hi) at depth
+    //     d with root mid, every point of [lo, mid) has coordinate <= that of points[mid] and
+    //     every point of [mid + 1, hi) has coordinate >= that of points[mid], on d's axis
+    // AF(this) = {points[i] | 0 <= i < points.length}
+
+    private final Point[] points;
+
+    /**
+     * Creates an index of the given points.
+     * @param points the points to index; duplicates are kept
+     * @spec.requires points != null, and contains no null
+     */
+    public PointIndex(Collection<Point> points) {
+        this.points = points.toArray(new Point[0]);
+        build(0, this.points.length, 0);
+        if (DEBUG) checkRep();
+    }
+
+    /**
+     * @return the number of points in this index
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * @param x the x coordinate of the location to search from
+     * @param y the y coordinate of the location to search from
+     * @return a point of this index closest to (x, y), or null if this index is empty
+     */
+    public Point nearest(double x, double y) {
+        if (points.length == 0) return null;
+        Nearest best = new Nearest();
+        nearest(0, points.length, 0, x, y, best);
+        return points[best.index];
+    }
+
+    /**
+     * @param x the x coordinate of the location to search from
+     * @param y the y coordinate of the location to search from
+     * @param k the number of points to find
+     * @return the min(k, size()) points of this index closest to (x, y), closest first
+     * @throws IllegalArgumentException if k &lt; 0
+     */
+    public List<Point> nearest(double x, double y, int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be non-negative");
+        k = Math.min(k, points.length);
+        if (k == 0) return new ArrayList<>();
+
+        // the k closest found so far, farthest on top
+        PriorityQueue<Point> found = new PriorityQueue<>(k,
+                Comparator.comparingDouble((Point p) -> distanceSq(p, x, y)).reversed());
+        nearest(0, points.length, 0, x, y, k, found);
+
+        Point[] ret = new Point[found.size()];
+        for (int i = ret.length - 1; i >= 0; i--) {
+            ret[i] = found.poll();
+        }
+        return new ArrayList<>(Arrays.asList(ret));
+    }
+
+    /**
+     * The index and squared distance of the closest point found so far.
+     */
+    private static class Nearest {
+        int index = -1;
+        double distanceSq = Double.POSITIVE_INFINITY;
+    }
+
+    private void nearest(int lo, int hi, int depth, double x, double y, Nearest best) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        Point p = points[mid];
+        double d = distanceSq(p, x, y);
+        if (d < best.distanceSq) {
+            best.distanceSq = d;
+            best.index = mid;
+        }
+
+        // search the side of the split holding (x, y) first, then the other if it could be closer
+        double diff = (depth % 2 == 0) ? x - p.getX() : y - p.getY();
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, x, y, best);
+            if (diff * diff < best.distanceSq) nearest(mid + 1, hi, depth + 1, x, y, best);
+        } else {
+            nearest(mid + 1, hi, depth + 1, x, y, best);
+            if (diff * diff < best.distanceSq) nearest(lo, mid, depth + 1, x, y, best);
+        }
+    }
+
+    private void nearest(int lo, int hi, int depth, double x, double y, int k, PriorityQueue<Point> found) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        Point p = points[mid];
+        if (found.size() < k) {
+            found.add(p);
+        } else if (distanceSq(p, x, y) < distanceSq(found.peek(), x, y)) {
+            found.poll();
+            found.add(p);
+        }
+
+        double diff = (depth % 2 == 0) ? x - p.getX() : y - p.getY();
+        int nearLo = diff < 0 ? lo : mid + 1;
+        int nearHi = diff < 0 ? mid : hi;
+        int farLo = diff < 0 ? mid + 1 : lo;
+        int farHi = diff < 0 ? hi : mid;
+        nearest(nearLo, nearHi, depth + 1, x, y, k, found);
+        if (found.size() < k || diff * diff < distanceSq(found.peek(), x, y))
+            nearest(farLo, farHi, depth + 1, x, y, k, found);
+    }
+
+    private static double distanceSq(Point p, double x, double y) {
+        double dx = p.getX() - x;
+        double dy = p.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static double coordinate(Point p, int depth) {
+        return depth % 2 == 0 ? p.getX() : p.getY();
+    }
+
+    /**
+     * Arranges points[lo, hi) into a subtree at the given depth.
+     */
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi, mid, depth);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Reorders points[lo, hi) so that points[k] is where it would be if they were sorted by
+     * their coordinate on depth's axis, with no larger point before it and no smaller after.
+     */
+    private void select(int lo, int hi, int k, int depth) {
+        hi--;
+        while (lo < hi) {
+            double pivot = coordinate(points[(lo + hi) >>> 1], depth);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinate(points[i], depth) < pivot) i++;
+                while (coordinate(points[j], depth) > pivot) j--;
+                if (i <= j) {
+                    Point tmp = points[i];
+                    points[i] = points[j];
+                    points[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void checkRep() {
+        assert points != null : "points is null!";
+        checkSubtree(0, points.length, 0);
+    }
+
+    private void checkSubtree(int lo, int hi, int depth) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        assert points[mid] != null : "points has a null element!";
+        double split = coordinate(points[mid], depth);
+        for (int i = lo; i < mid; i++)
+            assert coordinate(points[i], depth) <= split : "left subtree is out of order!";
+        for (int i = mid + 1; i < hi; i++)
+            assert coordinate(points[i], depth) >= split : "right subtree is out of order!";
+        checkSubtree(lo, mid, depth + 1);
+        checkSubtree(mid + 1, hi, depth + 1);
+    }
+}
@@ -0,0 +1,78 @@
+package pathfinder.benchmarks;
+
+import graph.Graph;
+import pathfinder.DeltaStepping;
+import pathfinder.Dijkstra;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how long delta-stepping takes to find every shortest path from one node of a large
+ * random graph, for pools of 1, 2, 4, ... threads up to the number of cores, next to Dijkstra's
+ * algorithm on the same graph. Run with
+ * <pre>
+ *     ./gradlew :hw-pathfinder:deltaSteppingBenchmark [--args="nodes edgesPerNode runs maxThreads"]
+ * </pre>
+ */
+public class DeltaSteppingBenchmark {
+
+    /**
+     * @param args optional number of nodes, edges leaving each node, timed runs per setting and
+     *             largest pool, which is the number of cores by default
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int runs = args.length > 2 ? Math.max(1, Integer.parseInt(args[2])) : 5;
+
+        Random random = new Random(14);
+        Graph<Integer, Double> graph = new Graph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addNode(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < degree; d++) {
+                // costs are distinct with overwhelming likelihood, so no edge is a duplicate
+                graph.addEdge(i, random.nextInt(n), 1 + 99 * random.nextDouble());
+            }
+        }
+        graph.freeze();     // built once, outside the timed runs
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxThreads = args.length > 3 ? Math.max(1, Integer.parseInt(args[3])) : cores;
+        System.out.printf("%,d nodes, %,d edges, %d cores, median of %d runs%n",
+                n, n * degree, cores, runs);
+        System.out.printf("%-24s %10s%n", "", "ms");
+        System.out.printf("%-24s %10.1f%n", "Dijkstra",
+                median(runs, () -> Dijkstra.shortestPathTree(graph, 0)));
+        for (int parallelism = 1; ; parallelism *= 2) {
+            int threads = Math.min(parallelism, maxThreads);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                System.out.printf("%-24s %10.1f%n", "delta-stepping, " + threads + " thread" + (threads == 1 ? "" : "s"),
+                        median(runs, () -> DeltaStepping.shortestPathTree(graph, 0, 0, pool)));
+            } finally {
+                pool.shutdown();
+            }
+            if (threads == maxThreads) break;
+        }
+    }
+
+    /**
+     * Runs search once to warm up and then runs times more.
+     * @return the median time of the timed runs, in milliseconds
+     */
+    private static double median(int runs, Runnable search) {
+        search.run();
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            search.run();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[runs / 2];
+    }
+}
@@ -0,0 +1,90 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AStar;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AStarTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<Point, Double> grid;
+
+    // 5x5 grid of points one unit apart, with edges in both directions costing 2 per unit
+    @Before
+    public void graphCreation(){
+        grid = new Graph<>();
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                grid.addNode(new Point(x, y));
+            }
+        }
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                if (x > 0) {
+                    grid.addEdge(new Point(x, y), new Point(x - 1, y), 2.0);
+                    grid.addEdge(new Point(x - 1, y), new Point(x, y), 2.0);
+                }
+                if (y > 0) {
+                    grid.addEdge(new Point(x, y), new Point(x, y - 1), 2.0);
+                    grid.addEdge(new Point(x, y - 1), new Point(x, y), 2.0);
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoElemException(){
+        AStar.findPath(grid, new Point(0, 0), new Point(9, 9));
+    }
+
+    @Test
+    public void testAdmissibleScale(){
+        assertEquals(2.0, AStar.admissibleScale(grid), 0.001);
+        assertEquals(0.0, AStar.admissibleScale(new Graph<>()), 0.001);
+    }
+
+    @Test
+    public void testAStarCost(){
+        assertEquals(16.0, AStar.findPath(grid, new Point(0, 0), new Point(4, 4)).getCost(), 0.001);
+        assertEquals(0.0, AStar.findPath(grid, new Point(2, 2), new Point(2, 2)).getCost(), 0.001);
+        assertEquals(16.0, AStar.findPath(grid, new Point(0, 0), new Point(4, 4),
+                AStar.admissibleScale(grid), null).getCost(), 0.001);
+    }
+
+    @Test
+    public void testAStarNoPath(){
+        grid.addNode(new Point(10, 10));
+        assertNull(AStar.findPath(grid, new Point(0, 0), new Point(10, 10)));
+    }
+
+    @Test
+    public void testAStarSettlesFewerOnCampus(){
+        CampusMap dijkstra = new CampusMap(SearchMode.DIJKSTRA);
+        CampusMap aStar = new CampusMap(SearchMode.ASTAR);
+        SearchStats dijkstraStats = new SearchStats();
+        SearchStats aStarStats = new SearchStats();
+
+        List<String> names = new ArrayList<>(dijkstra.buildingNames().keySet());
+        for (int i = 0; i < names.size(); i += 3) {
+            for (int j = 0; j < names.size(); j += 2) {
+                Path<Point> expected = dijkstra.findShortestPath(names.get(i), names.get(j), dijkstraStats);
+                Path<Point> actual = aStar.findShortestPath(names.get(i), names.get(j), aStarStats);
+                assertEquals(expected.getCost(), actual.getCost(), 0.001);
+            }
+        }
+        assertTrue(aStarStats.getNodesSettled() < dijkstraStats.getNodesSettled());
+    }
+}
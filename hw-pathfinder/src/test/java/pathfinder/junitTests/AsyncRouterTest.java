@@ -0,0 +1,154 @@
+package pathfinder.junitTests;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AsyncRouter;
+import pathfinder.CampusMap;
+import pathfinder.ModelAPI;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class AsyncRouterTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final CampusMap map = new CampusMap();
+
+    /**
+     * A model whose searches never finish on their own, counting how many were interrupted.
+     */
+    private static class SlowModel implements ModelAPI {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public Path<Point> findShortestPath(String startShortName, String endShortName) {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new CancellationException("interrupted");
+            }
+            return null;
+        }
+
+        @Override public boolean shortNameExists(String shortName) { return true; }
+        @Override public String longNameForShort(String shortName) { return shortName; }
+        @Override public Map<String, String> buildingNames() { return Map.of(); }
+        @Override public Point locationForShort(String shortName) { return new Point(0, 0); }
+        @Override public ShortestPathTree<Point> shortestPathTree(String startShortName) { return null; }
+        @Override public List<Path<Point>> findShortestPaths(List<Map.Entry<String, String>> pairs) { return List.of(); }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBounds(){
+        new AsyncRouter(map, 0, 1);
+    }
+
+    @Test
+    public void testFindShortestPath() throws Exception {
+        try (AsyncRouter router = new AsyncRouter(map, 2, 10)) {
+            assertEquals(map.findShortestPath("CSE", "MGH"), router.findShortestPath("CSE", "MGH").get());
+        }
+    }
+
+    @Test
+    public void testInvalidName() throws Exception {
+        try (AsyncRouter router = new AsyncRouter(map, 2, 10)) {
+            try {
+                router.findShortestPath("CSE", "NOT A BUILDING").get();
+                fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+    }
+
+    @Test
+    public void testCancelInterruptsSearch() throws Exception {
+        SlowModel model = new SlowModel();
+        try (AsyncRouter router = new AsyncRouter(model, 1, 1)) {
+            CompletableFuture<Path<Point>> future = router.findShortestPath("A", "B");
+            model.started.await();
+            future.cancel(true);
+            assertTrue(model.interrupted.await(5, TimeUnit.SECONDS));
+            assertTrue(future.isCancelled());
+        }
+    }
+
+    @Test
+    public void testTimeoutInterruptsSearch() throws Exception {
+        SlowModel model = new SlowModel();
+        try (AsyncRouter router = new AsyncRouter(model, 1, 1)) {
+            CompletableFuture<Path<Point>> future = router.findShortestPath("A", "B", 50, TimeUnit.MILLISECONDS);
+            assertTrue(model.interrupted.await(5, TimeUnit.SECONDS));
+            try {
+                future.get();
+                fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+        }
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        Point cse = map.locationForShort("CSE");
+        try (AsyncRouter router = new AsyncRouter(map, 2, 10)) {
+            assertEquals(map.findShortestPathFrom(cse.getX() + 1, cse.getY(), "MGH"),
+                    router.submit(() -> map.findShortestPathFrom(cse.getX() + 1, cse.getY(), "MGH")).get());
+        }
+    }
+
+    @Test
+    public void testSubmitTimeoutInterruptsSearch() throws Exception {
+        SlowModel model = new SlowModel();
+        try (AsyncRouter router = new AsyncRouter(model, 1, 1)) {
+            CompletableFuture<Path<Point>> future = router.submit(() -> model.findShortestPath("A", "B"),
+                    50, TimeUnit.MILLISECONDS);
+            assertTrue(model.interrupted.await(5, TimeUnit.SECONDS));
+            try {
+                future.get();
+                fail("expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsWhenFull() throws Exception {
+        SlowModel model = new SlowModel();
+        try (AsyncRouter router = new AsyncRouter(model, 1, 1)) {
+            router.findShortestPath("A", "B");
+            model.started.await();
+            CompletableFuture<Path<Point>> queued = router.findShortestPath("A", "B");
+            CompletableFuture<Path<Point>> rejected = router.findShortestPath("A", "B");
+            assertEquals(1, router.queued());
+            assertTrue(rejected.isCompletedExceptionally());
+
+            queued.cancel(true);   // frees its queue slot without running
+            assertEquals(0, router.queued());
+        }
+    }
+
+    @Test
+    public void testCloseCancelsQueued() throws Exception {
+        SlowModel model = new SlowModel();
+        AsyncRouter router = new AsyncRouter(model, 1, 1);
+        router.findShortestPath("A", "B");
+        model.started.await();
+        CompletableFuture<Path<Point>> queued = router.findShortestPath("A", "B");
+        router.close();
+        assertTrue(queued.isCancelled());
+        assertTrue(model.interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
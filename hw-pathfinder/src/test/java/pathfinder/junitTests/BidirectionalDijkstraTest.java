@@ -0,0 +1,69 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BidirectionalDijkstra;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BidirectionalDijkstraTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<String, Double> g2;
+    @Before
+    public void graphCreation(){
+        g2 = SampleGraphs.g2();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoElemException(){
+        BidirectionalDijkstra.findPath(new Graph<String, Double>(), "A", "B");
+    }
+
+    @Test
+    public void testNoPath(){
+        assertNull(BidirectionalDijkstra.findPath(g2, "B", "A"));
+    }
+
+    @Test
+    public void testSelfPath(){
+        assertEquals(new Path<>("A"), BidirectionalDijkstra.findPath(g2, "A", "A"));
+    }
+
+    @Test
+    public void testBidirectional(){
+        BidirectionalDijkstra<String> search = new BidirectionalDijkstra<>(g2);
+        assertEquals(2.0, search.findPath("C", "D").getCost(), 0.001);
+        assertEquals(4.0, search.findPath("B", "D").getCost(), 0.001);
+        assertEquals(new Path<>("A").extend("B", 1.0).extend("C", 2.0).extend("D", 2.0),
+                search.findPath("A", "D"));
+    }
+
+    @Test
+    public void testMatchesDijkstraOnRandomGraph(){
+        Graph<Integer, Double> g = SampleGraphs.randomGraph(331, 200, 800);
+        Random random = new Random(331);
+
+        BidirectionalDijkstra<Integer> search = new BidirectionalDijkstra<>(g);
+        for (int i = 0; i < 200; i++) {
+            int src = random.nextInt(200);
+            int dst = random.nextInt(200);
+            Path<Integer> expected = Dijkstra.findPath(g, src, dst);
+            Path<Integer> actual = search.findPath(src, dst);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.getCost(), actual.getCost(), 0.001);
+                assertEquals(Integer.valueOf(src), actual.getStart());
+                assertEquals(Integer.valueOf(dst), actual.getEnd());
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package pathfinder.junitTests;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.SearchMode;
+import pathfinder.SearchStats;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CampusMapTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final List<Map.Entry<String, String>> PAIRS = List.of(
+            Map.entry("CSE", "MGH"),
+            Map.entry("KNE", "SAV"),
+            Map.entry("CSE", "SAV"),
+            Map.entry("CSE", "MGH"),
+            Map.entry("SAV", "SAV"));
+
+    @Test
+    public void testBatchMatchesSingleQueries(){
+        CampusMap map = new CampusMap();
+        List<Path<Point>> paths = map.findShortestPaths(PAIRS);
+        assertEquals(PAIRS.size(), paths.size());
+        for (int i = 0; i < PAIRS.size(); i++) {
+            assertEquals(map.findShortestPath(PAIRS.get(i).getKey(), PAIRS.get(i).getValue()), paths.get(i));
+        }
+        assertSame(paths.get(0), paths.get(3));     // duplicate pairs share one search
+    }
+
+    @Test
+    public void testBatchInOtherMode(){
+        CampusMap dijkstra = new CampusMap();
+        CampusMap aStar = new CampusMap(SearchMode.ASTAR);
+        List<Path<Point>> paths = aStar.findShortestPaths(PAIRS);
+        for (int i = 0; i < PAIRS.size(); i++) {
+            assertEquals(dijkstra.findShortestPath(PAIRS.get(i).getKey(), PAIRS.get(i).getValue()).getCost(),
+                    paths.get(i).getCost(), 0.001);
+        }
+    }
+
+    @Test
+    public void testEmptyBatch(){
+        assertTrue(new CampusMap().findShortestPaths(List.of()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchInvalidName(){
+        new CampusMap().findShortestPaths(List.of(Map.entry("CSE", "MGH"), Map.entry("CSE", "NOT A BUILDING")));
+    }
+
+    @Test
+    public void testLocationForShort(){
+        CampusMap map = new CampusMap();
+        assertEquals(map.findShortestPath("CSE", "MGH").getStart(), map.locationForShort("CSE"));
+    }
+
+    @Test
+    public void testLoadedOnce(){
+        CampusMap map = new CampusMap();
+        assertTrue(map.getLoadNanos() > 0);
+        assertEquals(map.getLoadNanos(), new CampusMap().getLoadNanos());
+        for (String name : map.buildingNames().keySet()) {
+            Point location = map.locationForShort(name);
+            assertEquals(location, map.nearestLocation(location.getX(), location.getY()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLocationForBadShort(){
+        new CampusMap().locationForShort("NOT A BUILDING");
+    }
+
+    @Test
+    public void testBuildingsWithinRadius(){
+        CampusMap map = new CampusMap();
+        ShortestPathTree<Point> tree = map.shortestPathTree("CSE");
+        double radius = tree.distanceTo(map.locationForShort("MGH"));
+
+        Map<String, Double> near = map.buildingsWithin("CSE", radius);
+        assertEquals(0.0, near.get("CSE"), 0.001);
+        assertEquals(radius, near.get("MGH"), 0.001);
+        for (String name : map.buildingNames().keySet()) {
+            double dist = tree.distanceTo(map.locationForShort(name));
+            if (dist <= radius) {
+                assertEquals(dist, near.get(name), 0.001);
+            } else {
+                assertFalse(near.containsKey(name));
+            }
+        }
+    }
+
+    @Test
+    public void testBuildingsWithinReached(){
+        CampusMap map = new CampusMap();
+        for (double radius : new double[] {0, 500, 2000}) {
+            Map<Point, Double> reached = map.reachableWithin("KNE", radius);
+            assertEquals(map.buildingsWithin("KNE", radius), map.buildingsWithin(reached));
+        }
+    }
+
+    @Test
+    public void testReachableWithinMatchesTree(){
+        CampusMap map = new CampusMap();
+        ShortestPathTree<Point> tree = map.shortestPathTree("KNE");
+        for (double radius : new double[] {0, 500, 2000}) {
+            Map<Point, Double> reached = map.reachableWithin("KNE", radius);
+            for (Map.Entry<Point, Double> entry : reached.entrySet()) {
+                assertEquals(tree.distanceTo(entry.getKey()), entry.getValue(), 0.001);
+                assertTrue(entry.getValue() <= radius);
+            }
+            // the same search again reuses the workspace and gives the same answer
+            assertEquals(reached, map.reachableWithin("KNE", radius));
+        }
+        assertEquals(Map.of(map.locationForShort("KNE"), 0.0), map.reachableWithin("KNE", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReachableWithinBadShort(){
+        new CampusMap().reachableWithin("NOT A BUILDING", 100);
+    }
+
+    @Test
+    public void testNearestBuilding(){
+        CampusMap map = new CampusMap();
+        for (String name : List.of("CSE", "MGH", "KNE", "SAV")) {
+            Point location = map.locationForShort(name);
+            List<String> nearest = map.nearestBuildings(location.getX() + 0.5, location.getY() - 0.5, 1);
+            assertEquals(location, map.locationForShort(nearest.get(0)));
+            assertEquals(location, map.nearestLocation(location.getX() + 0.5, location.getY() - 0.5));
+        }
+        assertEquals(5, map.nearestBuildings(0, 0, 5).size());
+        assertEquals(map.buildingNames().size(), map.nearestBuildings(0, 0, 1000).size());
+    }
+
+    @Test
+    public void testFindShortestPathFrom(){
+        CampusMap map = new CampusMap();
+        Point cse = map.locationForShort("CSE");
+        assertEquals(map.findShortestPath("CSE", "MGH"), map.findShortestPathFrom(cse.getX() + 1, cse.getY(), "MGH"));
+
+        Point start = map.nearestLocation(1000, 1000);
+        Path<Point> path = new CampusMap(SearchMode.ROUTE_TABLE).findShortestPathFrom(1000, 1000, "MGH");
+        assertEquals(start, path.getStart());
+        assertEquals(map.locationForShort("MGH"), path.getEnd());
+    }
+
+    @Test
+    public void testMetricsOnlyWhenEnabled(){
+        CampusMap map = new CampusMap();
+        assertFalse(map.isMetricsEnabled());
+        map.findShortestPath("CSE", "MGH");
+        assertEquals(0, map.getMetrics().getQueries());
+
+        map.setMetricsEnabled(true);
+        map.findShortestPath("CSE", "MGH");
+        map.findShortestPath("KNE", "SAV");
+        assertEquals(2, map.getMetrics().getQueries());
+        assertTrue(map.getMetrics().getNodesSettled().getMax() > 0);
+        assertTrue(map.getMetrics().getEdgesRelaxed().getMean() > 0);
+        assertEquals(2L, map.getMetrics().summary().get("elapsedNanos").get("count"));
+
+        map.getMetrics().reset();
+        assertEquals(0, map.getMetrics().getQueries());
+    }
+
+    @Test
+    public void testMetricsInEveryMode(){
+        for (SearchMode mode : SearchMode.values()) {
+            CampusMap map = new CampusMap(mode);
+            map.setMetricsEnabled(true);
+            map.findShortestPath("CSE", "SAV");
+            assertEquals(1, map.getMetrics().getQueries());
+            assertTrue(map.getMetrics().getElapsedNanos().getMax() > 0);
+        }
+    }
+
+    /**
+     * @return a segment from the middle of path
+     */
+    private static Path<Point>.Segment<Point> middleSegment(Path<Point> path){
+        int i = 0;
+        for (Path<Point>.Segment<Point> segment : path) {
+            if (i++ == path.size() / 2) return segment;
+        }
+        throw new AssertionError("empty path");
+    }
+
+    private static boolean walks(Path<Point> path, Point a, Point b){
+        for (Path<Point>.Segment<Point> segment : path) {
+            if (segment.getStart().equals(a) && segment.getEnd().equals(b)) return true;
+            if (segment.getStart().equals(b) && segment.getEnd().equals(a)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void testClosedWalkwayAvoidedInEveryMode(){
+        CampusMap dijkstra = new CampusMap();
+        List<CampusMap> maps = new ArrayList<>();
+        for (SearchMode mode : SearchMode.values()) {
+            maps.add(new CampusMap(mode));      // build each mode's structures before the change
+        }
+        Path<Point> before = dijkstra.findShortestPath("CSE", "SAV");
+        Path<Point>.Segment<Point> closed = middleSegment(before);
+        try {
+            dijkstra.closeWalkway(closed.getStart(), closed.getEnd());
+            assertTrue(dijkstra.isWalkwayClosed(closed.getEnd(), closed.getStart()));
+            double detour = dijkstra.findShortestPath("CSE", "SAV").getCost();
+            assertTrue(detour > before.getCost());
+            for (CampusMap map : maps) {
+                Path<Point> path = map.findShortestPath("CSE", "SAV");
+                assertFalse(walks(path, closed.getStart(), closed.getEnd()));
+                assertEquals(detour, path.getCost(), 0.001);
+            }
+
+            dijkstra.reopenWalkway(closed.getEnd(), closed.getStart());
+            assertFalse(dijkstra.isWalkwayClosed(closed.getStart(), closed.getEnd()));
+            for (CampusMap map : maps) {
+                assertEquals(before.getCost(), map.findShortestPath("CSE", "SAV").getCost(), 0.001);
+            }
+        } finally {
+            dijkstra.reopenAllWalkways();
+        }
+    }
+
+    @Test
+    public void testCheaperWalkwayInEveryMode(){
+        CampusMap dijkstra = new CampusMap();
+        List<CampusMap> maps = new ArrayList<>();
+        for (SearchMode mode : SearchMode.values()) {
+            maps.add(new CampusMap(mode));
+        }
+        Path<Point> before = dijkstra.findShortestPath("KNE", "SAV");
+        Path<Point>.Segment<Point> cheaper = middleSegment(before);
+        try {
+            assertEquals(cheaper.getCost(),
+                    dijkstra.setWalkwayCost(cheaper.getStart(), cheaper.getEnd(), 0), 0.001);
+            double after = dijkstra.findShortestPath("KNE", "SAV").getCost();
+            assertEquals(before.getCost() - cheaper.getCost(), after, 0.001);
+            for (CampusMap map : maps) {
+                assertEquals(after, map.findShortestPath("KNE", "SAV").getCost(), 0.001);
+                assertEquals(dijkstra.findShortestPath("CSE", "MGH").getCost(),
+                        map.findShortestPath("CSE", "MGH").getCost(), 0.001);
+            }
+        } finally {
+            dijkstra.reopenAllWalkways();
+        }
+        assertEquals(before, dijkstra.findShortestPath("KNE", "SAV"));
+    }
+
+    @Test
+    public void testHierarchyRebuiltInBackground() throws InterruptedException {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap hierarchy = new CampusMap(SearchMode.CONTRACTION_HIERARCHY);
+        Path<Point> before = dijkstra.findShortestPath("CSE", "SAV");
+        Path<Point>.Segment<Point> closed = middleSegment(before);
+        try {
+            dijkstra.closeWalkway(closed.getStart(), closed.getEnd());
+            SearchStats full = new SearchStats();
+            double detour = dijkstra.findShortestPath("CSE", "SAV", full).getCost();
+
+            // answered at once, by Dijkstra while the hierarchy is rebuilt
+            assertEquals(detour, hierarchy.findShortestPath("CSE", "SAV").getCost(), 0.001);
+
+            // the rebuilt hierarchy is used once it is ready, settling far fewer nodes
+            SearchStats stats = new SearchStats();
+            do {
+                Thread.sleep(20);
+                stats.reset();
+                assertEquals(detour, hierarchy.findShortestPath("CSE", "SAV", stats).getCost(), 0.001);
+            } while (stats.getNodesSettled() >= full.getNodesSettled());
+        } finally {
+            dijkstra.reopenAllWalkways();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCloseMissingWalkway(){
+        CampusMap map = new CampusMap();
+        map.closeWalkway(map.locationForShort("CSE"), map.locationForShort("SAV"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWalkwayCost(){
+        CampusMap map = new CampusMap();
+        Path<Point>.Segment<Point> segment = middleSegment(map.findShortestPath("CSE", "MGH"));
+        map.setWalkwayCost(segment.getStart(), segment.getEnd(), -1);
+    }
+}
@@ -0,0 +1,123 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import graph.PersistentGraph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.ContractionHierarchy;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class ContractionHierarchyTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<String, Double> g2;
+    @Before
+    public void graphCreation(){
+        g2 = SampleGraphs.g2();
+    }
+
+    @Test
+    public void testPersistentGraph(){
+        PersistentGraph<String, Double> v1 = new PersistentGraph<>(g2);
+        PersistentGraph<String, Double> v2 = v1.addEdge("A", "D", 0.5);
+        ContractionHierarchy<String> before = new ContractionHierarchy<>(v1);
+        ContractionHierarchy<String> after = new ContractionHierarchy<>(v2);
+
+        // the hierarchy of the old version is not affected by the newer one
+        assertEquals(Dijkstra.findPath(v1, "A", "D"), before.findPath("A", "D"));
+        assertEquals(5.0, before.findPath("A", "D").getCost(), 0.001);
+        assertEquals(0.5, after.findPath("A", "D").getCost(), 0.001);
+        assertEquals(5.0, Dijkstra.findPath(v1, "A", "D").getCost(), 0.001);
+        assertEquals(0.5, Dijkstra.findPath(v2, "A", "D").getCost(), 0.001);
+        assertEquals(Dijkstra.findPath(g2, "B", "D"), Dijkstra.findPath(v2, "B", "D"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoElemException(){
+        new ContractionHierarchy<>(g2).findPath("A", "E");
+    }
+
+    @Test
+    public void testNoPath(){
+        assertNull(new ContractionHierarchy<>(g2).findPath("B", "A"));
+    }
+
+    @Test
+    public void testSelfPath(){
+        assertEquals(new Path<>("A"), new ContractionHierarchy<>(g2).findPath("A", "A"));
+    }
+
+    @Test
+    public void testHierarchy(){
+        ContractionHierarchy<String> search = new ContractionHierarchy<>(g2);
+        assertEquals(2.0, search.findPath("C", "D").getCost(), 0.001);
+        assertEquals(4.0, search.findPath("B", "D").getCost(), 0.001);
+        assertEquals(new Path<>("A").extend("B", 1.0).extend("C", 2.0).extend("D", 2.0),
+                search.findPath("A", "D"));
+    }
+
+    @Test
+    public void testInterruptedSearchStops(){
+        ContractionHierarchy<String> search = new ContractionHierarchy<>(g2);
+        Thread.currentThread().interrupt();
+        try {
+            search.findPath("A", "D");
+            fail("expected CancellationException");
+        } catch (CancellationException e) {
+            // the search gave up at its first settled node
+        } finally {
+            Thread.interrupted();   // clear the flag for later tests
+        }
+    }
+
+    @Test
+    public void testShortcutsUnpack(){
+        // a long chain: contracting its middle forces shortcuts which must unpack to every edge
+        Graph<Integer, Double> chain = new Graph<>();
+        Path<Integer> expected = new Path<>(0);
+        chain.addNode(0);
+        for (int i = 1; i < 50; i++) {
+            chain.addNode(i);
+            chain.addEdge(i - 1, i, (double) i);
+            chain.addEdge(i, i - 1, (double) i);
+            expected = expected.extend(i, i);
+        }
+        ContractionHierarchy<Integer> search = new ContractionHierarchy<>(chain);
+        assertTrue(search.shortcutCount() > 0);
+        assertEquals(expected, search.findPath(0, 49));
+    }
+
+    @Test
+    public void testMatchesDijkstraOnRandomGraph(){
+        Graph<Integer, Double> g = SampleGraphs.randomGraph(331, 200, 800);
+        Random random = new Random(331);
+
+        ContractionHierarchy<Integer> search = new ContractionHierarchy<>(g);
+        for (int i = 0; i < 200; i++) {
+            int src = random.nextInt(200);
+            int dst = random.nextInt(200);
+            Path<Integer> expected = Dijkstra.findPath(g, src, dst);
+            Path<Integer> actual = search.findPath(src, dst);
+            if (expected == null) {
+                assertNull(actual);
+            } else {
+                assertEquals(expected.getCost(), actual.getCost(), 0.001);
+                assertEquals(Integer.valueOf(src), actual.getStart());
+                assertEquals(Integer.valueOf(dst), actual.getEnd());
+                double total = 0;
+                for (Path<Integer>.Segment<Integer> segment : actual) {
+                    total += segment.getCost();
+                }
+                assertEquals(expected.getCost(), total, 0.001);
+            }
+        }
+    }
+}
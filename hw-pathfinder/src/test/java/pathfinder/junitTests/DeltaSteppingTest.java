@@ -0,0 +1,99 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DeltaStepping;
+import pathfinder.Dijkstra;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class DeltaSteppingTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static void assertSameDistances(Graph<Integer, Double> graph, int src, double delta) {
+        assertSameDistances(graph, src, delta, ForkJoinPool.commonPool());
+    }
+
+    private static void assertSameDistances(Graph<Integer, Double> graph, int src, double delta,
+                                            ForkJoinPool pool) {
+        ShortestPathTree<Integer> expected = Dijkstra.shortestPathTree(graph, src);
+        ShortestPathTree<Integer> actual = DeltaStepping.shortestPathTree(graph, src, delta, pool);
+        assertEquals(expected.size(), actual.size());
+        for (Integer node : graph.listNodes()) {
+            assertEquals(expected.reaches(node), actual.reaches(node));
+            assertEquals(expected.distanceTo(node), actual.distanceTo(node), 1e-9);
+            if (actual.reaches(node)) {
+                Path<Integer> path = actual.pathTo(node);
+                assertEquals(Integer.valueOf(src), path.getStart());
+                assertEquals(node, path.getEnd());
+                assertEquals(expected.distanceTo(node), path.getCost(), 1e-9);
+                for (Path<Integer>.Segment<Integer> segment : path) {
+                    assertTrue(graph.listChildren(segment.getStart()).contains(
+                            new Graph.Edge<>(segment.getStart(), segment.getEnd(), segment.getCost())));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesDijkstra(){
+        Graph<Integer, Double> graph = SampleGraphs.randomGraph(331, 2000, 8000);
+        Random random = new Random(331);
+        for (double delta : new double[] {0, 0.5, 3, 10, 1000}) {
+            assertSameDistances(graph, random.nextInt(2000), delta);
+        }
+    }
+
+    @Test
+    public void testSparseGraphWithUnreachableNodes(){
+        Graph<Integer, Double> graph = SampleGraphs.randomGraph(332, 500, 400);
+        for (int src = 0; src < 20; src++) {
+            assertSameDistances(graph, src, 0);
+        }
+    }
+
+    @Test
+    public void testOwnPool(){
+        // a wide delta puts most nodes in one bucket, so frontiers are split across the pool
+        Graph<Integer, Double> graph = SampleGraphs.randomGraph(333, 3000, 15000);
+        Random random = new Random(333);
+        for (int parallelism : new int[] {1, 3}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                assertSameDistances(graph, random.nextInt(3000), 1000, pool);
+                assertSameDistances(graph, random.nextInt(3000), 0, pool);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testSingleNode(){
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode("A");
+        ShortestPathTree<String> tree = DeltaStepping.shortestPathTree(graph, "A");
+        assertEquals(1, tree.size());
+        assertEquals(0.0, tree.distanceTo("A"), 0.001);
+        assertEquals(new Path<>("A"), tree.pathTo("A"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSource(){
+        DeltaStepping.shortestPathTree(new Graph<String, Double>(), "A");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDelta(){
+        Graph<String, Double> graph = new Graph<>();
+        graph.addNode("A");
+        DeltaStepping.shortestPathTree(graph, "A", -1);
+    }
+}
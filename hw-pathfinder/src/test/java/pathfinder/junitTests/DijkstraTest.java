@@ -1,12 +1,19 @@
 package pathfinder.junitTests;
+import graph.ConcurrentGraph;
 import graph.Graph;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.Rule;
 import org.junit.rules.Timeout;
 import pathfinder.Dijkstra;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 
@@ -19,20 +26,7 @@ public class DijkstraTest {
     @Before
     public void graphCreation(){
         g1 = new Graph<>();
-        g2 = new Graph<>();
-
-        g2.addNode("A");
-        g2.addNode("B");
-        g2.addNode("C");
-        g2.addNode("D");
-
-        g2.addEdge("A", "B", 1.0);
-        g2.addEdge("A", "B", 5.0);
-        g2.addEdge("B", "C", 2.0);
-        g2.addEdge("B", "C", 4.0);
-        g2.addEdge("B", "D", 10.0);
-        g2.addEdge("C", "D", 2.0);
-        g2.addEdge("A", "D", 6.0);
+        g2 = SampleGraphs.g2();
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -52,6 +46,132 @@ public class DijkstraTest {
         assertEquals(5.0, Dijkstra.findPath(g2, "A", "D").getCost(), 0.001);
     }
 
+    @Test
+    public void testDijkstraPathSegments(){
+        Path<String> expected = new Path<>("A").extend("B", 1.0).extend("C", 2.0).extend("D", 2.0);
+        assertEquals(expected, Dijkstra.findPath(g2, "A", "D"));
+        assertEquals(new Path<>("A"), Dijkstra.findPath(g2, "A", "A"));
+    }
+
+    @Test
+    public void testDijkstraLongChain(){
+        Graph<Integer, Double> chain = new Graph<>();
+        for (int i = 0; i < 1000; i++) {
+            chain.addNode(i);
+            if (i > 0) {
+                chain.addEdge(i - 1, i, 1.0);
+                chain.addEdge(0, i, 2.0 * i);   // longer shortcut from the start, relaxed first
+            }
+        }
+        Path<Integer> path = Dijkstra.findPath(chain, 0, 999);
+        assertEquals(999.0, path.getCost(), 0.001);
+        assertEquals(Integer.valueOf(999), path.getEnd());
+    }
+
+    @Test
+    public void testWithinRadius(){
+        assertEquals(Map.of("A", 0.0, "B", 1.0, "C", 3.0), Dijkstra.withinRadius(g2, "A", 3.0));
+        assertEquals(Map.of("A", 0.0, "B", 1.0, "C", 3.0, "D", 5.0), Dijkstra.withinRadius(g2, "A", 100.0));
+        assertEquals(Map.of("B", 0.0), Dijkstra.withinRadius(g2, "B", 1.0));
+    }
+
+    @Test
+    public void testWithinRadiusOrder(){
+        assertEquals(List.of("A", "B", "C", "D"), new ArrayList<>(Dijkstra.withinRadius(g2, "A", 5.0).keySet()));
+    }
+
+    @Test
+    public void testWithinRadiusStopsEarly(){
+        Graph<Integer, Double> chain = new Graph<>();
+        for (int i = 0; i < 1000; i++) {
+            chain.addNode(i);
+            if (i > 0) {
+                chain.addEdge(i - 1, i, 1.0);
+                chain.addEdge(0, i, 2.0 * i);
+            }
+        }
+        SearchStats stats = new SearchStats();
+        assertEquals(11, Dijkstra.withinRadius(chain, 0, 10.0, stats).size());
+        assertEquals(11, stats.getNodesSettled());
+    }
+
+    @Test
+    public void testSearchStatsCounts(){
+        SearchStats stats = new SearchStats();
+        assertEquals(5.0, Dijkstra.findPath(g2, "A", "D", stats).getCost(), 0.001);
+        // A, B and C are settled before D, whose settling ends the search
+        assertEquals(4, stats.getNodesSettled());
+        assertEquals(4, stats.getHeapPops());
+        assertEquals(7, stats.getEdgesRelaxed());
+        assertEquals(4, stats.getHeapPushes());
+        assertEquals(2, stats.getMaxFrontier());
+        assertEquals(1, stats.getQueries());
+        assertTrue(stats.getElapsedNanos() > 0);
+
+        stats.reset();
+        assertEquals(0, stats.getNodesSettled());
+        assertEquals(0, stats.getEdgesRelaxed());
+        assertEquals(0, stats.getQueries());
+    }
+
+    @Test
+    public void testConcurrentGraph(){
+        ConcurrentGraph<String, Double> g = new ConcurrentGraph<>();
+        for (String node : g2.listNodes()) {
+            g.addNode(node);
+        }
+        for (String node : g2.listNodes()) {
+            for (Graph.Edge<String, Double> edge : g2.viewChildren(node)) {
+                g.addEdge(edge.getsrcName(), edge.getdstName(), edge.getLabel());
+            }
+        }
+        assertEquals(Dijkstra.findPath(g2, "A", "D"), Dijkstra.findPath(g, "A", "D"));
+        assertEquals(Dijkstra.withinRadius(g2, "A", 3.0), Dijkstra.withinRadius(g, "A", 3.0));
+
+        g.addEdge("A", "D", 0.5);
+        assertEquals(0.5, Dijkstra.findPath(g, "A", "D").getCost(), 0.001);
+    }
+
+    @Test
+    public void testConcurrentGraphDuringWrites() throws InterruptedException {
+        ConcurrentGraph<Integer, Double> g = new ConcurrentGraph<>();
+        for (int i = 0; i < 200; i++) {
+            g.addNode(i);
+            if (i > 0) g.addEdge(i - 1, i, 1.0);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                // shortcuts from the start only ever shorten the path to the end
+                for (int i = 2; i < 200; i++) {
+                    g.addEdge(0, i, 1.0);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        double last = Double.MAX_VALUE;
+        while (writer.isAlive()) {
+            double cost = Dijkstra.findPath(g, 0, 199).getCost();
+            assertTrue(cost <= last);
+            last = cost;
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertEquals(1.0, Dijkstra.findPath(g, 0, 199).getCost(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithinNegativeRadius(){
+        Dijkstra.withinRadius(g2, "A", -1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithinRadiusNoNode(){
+        Dijkstra.withinRadius(g1, "A", 1.0);
+    }
+
 
 
 }
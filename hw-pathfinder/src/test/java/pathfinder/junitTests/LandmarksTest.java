@@ -0,0 +1,103 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.Landmarks;
+import pathfinder.SearchMode;
+import pathfinder.SearchStats;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LandmarksTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<Point, Double> ring;
+
+    // 8 points around a ring, each joined both ways to its neighbors, with no edge across
+    @Before
+    public void graphCreation(){
+        ring = new Graph<>();
+        for (int i = 0; i < 8; i++) {
+            ring.addNode(point(i));
+        }
+        for (int i = 0; i < 8; i++) {
+            ring.addEdge(point(i), point((i + 1) % 8), 1.0);
+            ring.addEdge(point((i + 1) % 8), point(i), 1.0);
+        }
+    }
+
+    private static Point point(int i) {
+        return new Point(Math.cos(i * Math.PI / 4), Math.sin(i * Math.PI / 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadLandmark(){
+        new Landmarks<>(ring, List.of(new Point(5, 5)));
+    }
+
+    @Test
+    public void testPlanarLandmarks(){
+        assertEquals(4, Landmarks.planarLandmarks(ring, 4).size());
+        assertTrue(Landmarks.planarLandmarks(ring, 16).size() <= 8);
+    }
+
+    @Test
+    public void testLowerBoundIsExactAlongLandmark(){
+        Landmarks<Point> alt = new Landmarks<>(ring, List.of(point(0)));
+        assertEquals(4.0, alt.lowerBound(point(0), point(4)), 0.001);
+        assertEquals(2.0, alt.lowerBound(point(2), point(4)), 0.001);
+        assertEquals(0.0, alt.lowerBound(point(4), point(4)), 0.001);
+    }
+
+    @Test
+    public void testFindPath(){
+        Landmarks<Point> alt = new Landmarks<>(ring, Landmarks.planarLandmarks(ring, 2));
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                Path<Point> expected = Dijkstra.findPath(ring, point(i), point(j));
+                assertEquals(expected.getCost(), alt.findPath(point(i), point(j), null).getCost(), 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachable(){
+        ring.addNode(new Point(9, 9));
+        Landmarks<Point> alt = new Landmarks<>(ring, List.of(point(0), new Point(9, 9)));
+        assertNull(alt.findPath(point(1), new Point(9, 9), null));
+        assertEquals(3.0, alt.findPath(point(1), point(4), null).getCost(), 0.001);
+    }
+
+    @Test
+    public void testAltSettlesFewerOnCampus(){
+        CampusMap dijkstra = new CampusMap(SearchMode.DIJKSTRA);
+        CampusMap alt = new CampusMap(SearchMode.ALT, 4);
+        SearchStats dijkstraStats = new SearchStats();
+        SearchStats altStats = new SearchStats();
+
+        List<String> names = new ArrayList<>(dijkstra.buildingNames().keySet());
+        for (int i = 0; i < names.size(); i += 3) {
+            for (int j = 0; j < names.size(); j += 2) {
+                Path<Point> expected = dijkstra.findShortestPath(names.get(i), names.get(j), dijkstraStats);
+                Path<Point> actual = alt.findShortestPath(names.get(i), names.get(j), altStats);
+                assertEquals(expected.getCost(), actual.getCost(), 0.001);
+            }
+        }
+        assertTrue(altStats.getNodesSettled() < dijkstraStats.getNodesSettled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadLandmarkCount(){
+        new CampusMap(SearchMode.ALT, 0);
+    }
+}
@@ -0,0 +1,87 @@
+package pathfinder.junitTests;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.PathSimplifier;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PathSimplifierTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static List<Point> points(Path<Point> path) {
+        List<Point> ret = new ArrayList<>();
+        ret.add(path.getStart());
+        for (Path<Point>.Segment<Point> segment : path) {
+            ret.add(segment.getEnd());
+        }
+        return ret;
+    }
+
+    @Test
+    public void testStraightLineCollapses(){
+        Path<Point> path = new Path<>(new Point(0, 0));
+        for (int i = 1; i <= 10; i++) {
+            path = path.extend(new Point(i, 0), 2.0);
+        }
+        Path<Point> simple = PathSimplifier.simplify(path, 0);
+        assertEquals(1, simple.size());
+        assertEquals(new Point(0, 0), simple.getStart());
+        assertEquals(new Point(10, 0), simple.getEnd());
+        assertEquals(20.0, simple.getCost(), 1e-9);
+    }
+
+    @Test
+    public void testCornerIsKept(){
+        Path<Point> path = new Path<>(new Point(0, 0))
+                .extend(new Point(1, 0), 1.0)
+                .extend(new Point(2, 0), 1.0)
+                .extend(new Point(2, 1), 1.0)
+                .extend(new Point(2, 2), 1.0);
+        Path<Point> simple = PathSimplifier.simplify(path, 0.5);
+        assertEquals(List.of(new Point(0, 0), new Point(2, 0), new Point(2, 2)), points(simple));
+        assertEquals(4.0, simple.getCost(), 1e-9);
+
+        // a tolerance past the corner's distance from the straight line drops it too
+        assertEquals(1, PathSimplifier.simplify(path, 2).size());
+    }
+
+    @Test
+    public void testShortPathsUnchanged(){
+        Path<Point> empty = new Path<>(new Point(1, 1));
+        assertEquals(empty, PathSimplifier.simplify(empty, 5));
+        Path<Point> one = empty.extend(new Point(2, 2), 3.0);
+        assertEquals(one, PathSimplifier.simplify(one, 5));
+    }
+
+    @Test
+    public void testCampusRoute(){
+        Path<Point> path = new CampusMap().findShortestPath("CSE", "SAV");
+        List<Point> original = points(path);
+        for (double tolerance : new double[] {0, 1, 10, 100}) {
+            Path<Point> simple = PathSimplifier.simplify(path, tolerance);
+            assertEquals(path.getCost(), simple.getCost(), 1e-6);
+            assertEquals(path.getStart(), simple.getStart());
+            assertEquals(path.getEnd(), simple.getEnd());
+            assertTrue(simple.size() <= path.size());
+            // the simplified points are a subsequence of the original ones
+            int next = 0;
+            for (Point p : points(simple)) {
+                while (!original.get(next).equals(p)) next++;
+            }
+        }
+        assertTrue(PathSimplifier.simplify(path, 10).size() < path.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTolerance(){
+        PathSimplifier.simplify(new Path<>(new Point(0, 0)), -1);
+    }
+}
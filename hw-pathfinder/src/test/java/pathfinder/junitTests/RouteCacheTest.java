@@ -0,0 +1,153 @@
+package pathfinder.junitTests;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RouteCacheTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final CampusMap map = new CampusMap();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBounds(){
+        new RouteCache(map, 0, 100, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidName(){
+        new RouteCache(map, 10, 1000, true).findShortestPath("CSE", "NOT A BUILDING");
+    }
+
+    @Test
+    public void testCampusIsSymmetric(){
+        assertTrue(map.isSymmetric());
+    }
+
+    @Test
+    public void testHitsAndMisses(){
+        RouteCache cache = new RouteCache(map, 10, 100000, false);
+        Path<Point> first = cache.findShortestPath("CSE", "MGH");
+        Path<Point> second = cache.findShortestPath("CSE", "MGH");
+        assertEquals(map.findShortestPath("CSE", "MGH"), first);
+        assertSame(first, second);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(0.5, cache.hitRatio(), 0.001);
+        assertTrue(cache.totalLoadTimeNanos() > 0);
+
+        cache.findShortestPath("MGH", "CSE");   // not symmetric, so a miss
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void testReverseFromSymmetric(){
+        RouteCache cache = new RouteCache(map, 10, 100000, true);
+        cache.findShortestPath("CSE", "MGH");
+        Path<Point> reversed = cache.findShortestPath("MGH", "CSE");
+        assertEquals(1, cache.hitCount());
+        assertEquals(map.findShortestPath("MGH", "CSE").getCost(), reversed.getCost(), 0.001);
+        assertEquals(map.findShortestPath("CSE", "MGH").getStart(), reversed.getEnd());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed(){
+        RouteCache cache = new RouteCache(map, 2, 100000, false);
+        cache.findShortestPath("CSE", "MGH");
+        cache.findShortestPath("CSE", "KNE");
+        cache.findShortestPath("CSE", "MGH");   // hit, so KNE becomes the eldest
+        cache.findShortestPath("CSE", "SAV");   // evicts KNE
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.size());
+
+        cache.findShortestPath("CSE", "MGH");
+        assertEquals(2, cache.hitCount());
+        cache.findShortestPath("CSE", "KNE");
+        assertEquals(4, cache.missCount());
+    }
+
+    @Test
+    public void testEvictsBySegments(){
+        long segments = 0;
+        for (Path<Point>.Segment<Point> ignored : map.findShortestPath("CSE", "MGH")) {
+            segments++;
+        }
+        RouteCache cache = new RouteCache(map, 100, segments, false);
+        cache.findShortestPath("CSE", "MGH");
+        cache.findShortestPath("CSE", "SAV");   // over the segment bound
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void testBatch(){
+        RouteCache cache = new RouteCache(map, 10, 100000, true);
+        cache.findShortestPath("CSE", "MGH");
+        List<Path<Point>> paths = cache.findShortestPaths(
+                List.of(Map.entry("CSE", "MGH"), Map.entry("MGH", "CSE"), Map.entry("CSE", "SAV")));
+        assertEquals(3, paths.size());
+        assertEquals(map.findShortestPath("CSE", "MGH"), paths.get(0));
+        assertEquals(map.findShortestPath("MGH", "CSE").getCost(), paths.get(1).getCost(), 0.001);
+        assertEquals(map.findShortestPath("CSE", "SAV"), paths.get(2));
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        cache.findShortestPath("CSE", "SAV");   // cached by the batch
+        assertEquals(3, cache.hitCount());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        RouteCache cache = new RouteCache(map, 20, 100000, true);
+        List<String> names = new ArrayList<>(map.buildingNames().keySet()).subList(0, 6);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (String a : names) {
+                        for (String b : names) {
+                            assertEquals(map.findShortestPath(a, b).getCost(),
+                                    cache.findShortestPath(a, b).getCost(), 0.001);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty());
+        assertEquals(4 * 36, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    public void testInvalidateSegment(){
+        RouteCache cache = new RouteCache(map, 10, 100000, true);
+        Path<Point> path = cache.findShortestPath("CSE", "MGH");
+        Path<Point>.Segment<Point> first = path.iterator().next();
+
+        assertEquals(0, cache.invalidateSegment(map.locationForShort("KNE"), map.locationForShort("SAV")));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.invalidateSegment(first.getEnd(), first.getStart()));   // either direction
+        assertEquals(0, cache.size());
+        cache.findShortestPath("CSE", "MGH");
+        assertEquals(2, cache.missCount());
+    }
+}
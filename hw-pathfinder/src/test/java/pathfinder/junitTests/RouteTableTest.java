@@ -0,0 +1,77 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.RouteTable;
+import pathfinder.SearchMode;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RouteTableTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<String, Double> g2;
+    @Before
+    public void graphCreation(){
+        g2 = SampleGraphs.g2();
+        g2.addNode("E");
+        g2.addEdge("D", "E", 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingNode(){
+        new RouteTable<>(g2, List.of("A", "F"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotEndpoint(){
+        new RouteTable<>(g2, List.of("A", "D")).findPath("A", "B");
+    }
+
+    @Test
+    public void testRoutes(){
+        RouteTable<String> table = new RouteTable<>(g2, List.of("A", "D", "E"));
+        assertEquals(Dijkstra.findPath(g2, "A", "D"), table.findPath("A", "D"));
+        assertEquals(Dijkstra.findPath(g2, "A", "E"), table.findPath("A", "E"));
+        assertEquals(new Path<>("D"), table.findPath("D", "D"));
+        assertNull(table.findPath("E", "A"));
+    }
+
+    @Test
+    public void testRoutesAreStored(){
+        RouteTable<String> table = new RouteTable<>(g2, List.of("A", "D", "E"));
+        // each lookup returns the path built with the table, not a new one
+        assertSame(table.findPath("A", "E"), table.findPath("A", "E"));
+        assertSame(table.findPath("D", "E"), table.findPath("D", "E"));
+    }
+
+    @Test
+    public void testTreesArePruned(){
+        // A keeps A, B, C, D, E; D keeps D, E; E keeps E
+        RouteTable<String> table = new RouteTable<>(g2, List.of("A", "D", "E"));
+        assertEquals(8, table.size());
+    }
+
+    @Test
+    public void testMatchesDijkstraOnCampus(){
+        CampusMap dijkstra = new CampusMap(SearchMode.DIJKSTRA);
+        CampusMap table = new CampusMap(SearchMode.ROUTE_TABLE);
+
+        List<String> names = new ArrayList<>(dijkstra.buildingNames().keySet());
+        for (int i = 0; i < names.size(); i += 3) {
+            for (int j = 0; j < names.size(); j += 2) {
+                assertEquals(dijkstra.findShortestPath(names.get(i), names.get(j)).getCost(),
+                        table.findShortestPath(names.get(i), names.get(j)).getCost(), 0.001);
+            }
+        }
+    }
+}
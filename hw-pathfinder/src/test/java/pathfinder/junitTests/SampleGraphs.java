@@ -0,0 +1,57 @@
+package pathfinder.junitTests;
+import graph.Graph;
+
+import java.util.Random;
+
+/**
+ * Builds the small graphs shared by the search tests, so that each test class starts from the
+ * same fixture.
+ */
+final class SampleGraphs {
+
+    private SampleGraphs() {
+    }
+
+    /**
+     * @return a new graph with nodes A, B, C and D and parallel edges of different costs, in
+     * which the shortest path from A to D is A, B, C, D with cost 5 and nothing reaches A
+     */
+    static Graph<String, Double> g2() {
+        Graph<String, Double> g2 = new Graph<>();
+
+        g2.addNode("A");
+        g2.addNode("B");
+        g2.addNode("C");
+        g2.addNode("D");
+
+        g2.addEdge("A", "B", 1.0);
+        g2.addEdge("A", "B", 5.0);
+        g2.addEdge("B", "C", 2.0);
+        g2.addEdge("B", "C", 4.0);
+        g2.addEdge("B", "D", 10.0);
+        g2.addEdge("C", "D", 2.0);
+        g2.addEdge("A", "D", 6.0);
+        return g2;
+    }
+
+    /**
+     * @return a new graph with nodes 0 to n - 1 and m edges between random nodes, fewer if some
+     * drawn edge repeats an earlier one, whose costs are whole numbers from 0 to 19, so that
+     * equal and zero costs are common. The same seed, n and m give the same graph.
+     */
+    static Graph<Integer, Double> randomGraph(long seed, int n, int m) {
+        Random random = new Random(seed);
+        Graph<Integer, Double> graph = new Graph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addNode(i);
+        }
+        for (int i = 0; i < m; i++) {
+            int src = random.nextInt(n);
+            int dst = random.nextInt(n);
+            double cost = random.nextInt(20);
+            if (!graph.listChildren(src).contains(new Graph.Edge<>(src, dst, cost)))
+                graph.addEdge(src, dst, cost);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,133 @@
+package pathfinder.junitTests;
+import graph.Graph;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathTreeTest {
+
+    @Rule public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    static Graph<String, Double> g2;
+    @Before
+    public void graphCreation(){
+        g2 = SampleGraphs.g2();
+        g2.addNode("E");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoElemException(){
+        Dijkstra.shortestPathTree(g2, "F");
+    }
+
+    @Test
+    public void testTree(){
+        ShortestPathTree<String> tree = Dijkstra.shortestPathTree(g2, "A");
+        assertEquals("A", tree.getRoot());
+        assertEquals(4, tree.size());
+        assertEquals(0.0, tree.distanceTo("A"), 0.001);
+        assertEquals(3.0, tree.distanceTo("C"), 0.001);
+        assertEquals(5.0, tree.distanceTo("D"), 0.001);
+        assertEquals(Dijkstra.findPath(g2, "A", "D"), tree.pathTo("D"));
+        assertEquals(new Path<>("A"), tree.pathTo("A"));
+    }
+
+    @Test
+    public void testUnreachable(){
+        ShortestPathTree<String> tree = Dijkstra.shortestPathTree(g2, "B");
+        assertFalse(tree.reaches("A"));
+        assertFalse(tree.reaches("E"));
+        assertFalse(tree.reaches("F"));
+        assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo("E"), 0.001);
+        assertNull(tree.pathTo("A"));
+    }
+
+    @Test
+    public void testStopsAtTargets(){
+        ShortestPathTree<String> tree = Dijkstra.shortestPathTree(g2, "A", Set.of("B"));
+        assertTrue(tree.reaches("B"));
+        assertFalse(tree.reaches("D"));
+    }
+
+    @Test
+    public void testCampusTree(){
+        CampusMap map = new CampusMap();
+        ShortestPathTree<Point> tree = map.shortestPathTree("CSE");
+        for (String name : map.buildingNames().keySet()) {
+            Path<Point> expected = map.findShortestPath("CSE", name);
+            assertEquals(expected.getCost(), tree.distanceTo(map.locationForShort(name)), 0.001);
+            assertEquals(expected.getCost(), tree.pathTo(map.locationForShort(name)).getCost(), 0.001);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCampusBadName(){
+        new CampusMap().shortestPathTree("NOT A BUILDING");
+    }
+
+    @Test
+    public void testDistanceMatrix(){
+        double[][] matrix = Dijkstra.distanceMatrix(g2, List.of("A", "B", "E"), List.of("C", "D", "A"));
+        assertArrayEquals(new double[]{3.0, 5.0, 0.0}, matrix[0], 0.001);
+        assertArrayEquals(new double[]{2.0, 4.0, Double.POSITIVE_INFINITY}, matrix[1], 0.001);
+        assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY}, matrix[2], 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceMatrixBadTarget(){
+        Dijkstra.distanceMatrix(g2, List.of("A"), List.of("F"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceMatrixBadSource(){
+        Dijkstra.distanceMatrix(g2, List.of("F"), List.of("A"));
+    }
+
+    @Test
+    public void testDistanceMatrixRepeatedTarget(){
+        double[][] matrix = Dijkstra.distanceMatrix(g2, List.of("A"), List.of("D", "B", "D"));
+        assertArrayEquals(new double[]{5.0, 1.0, 5.0}, matrix[0], 0.001);
+    }
+
+    @Test
+    public void testFindPaths(){
+        Map<String, Path<String>> paths = Dijkstra.findPaths(g2, "A", List.of("D", "B", "E"));
+        assertEquals(3, paths.size());
+        assertEquals(Dijkstra.findPath(g2, "A", "D"), paths.get("D"));
+        assertEquals(1.0, paths.get("B").getCost(), 0.001);
+        assertTrue(paths.containsKey("E"));
+        assertNull(paths.get("E"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindPathsBadTarget(){
+        Dijkstra.findPaths(g2, "A", List.of("D", "F"));
+    }
+
+    @Test
+    public void testCampusDistanceMatrix(){
+        CampusMap map = new CampusMap();
+        List<String> names = new ArrayList<>(map.buildingNames().keySet());
+        List<String> sources = names.subList(0, 10);
+        double[][] matrix = map.distanceMatrix(sources, names);
+        for (int i = 0; i < sources.size(); i++) {
+            for (int j = 0; j < names.size(); j += 5) {
+                assertEquals(map.findShortestPath(sources.get(i), names.get(j)).getCost(), matrix[i][j], 0.001);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedMinHeap;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+public class TestIndexedMinHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Test
+    public void testEmptyHeap() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(0));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmptyHeap() {
+        new IndexedMinHeap(4).removeMin();
+    }
+
+    @Test
+    public void testRemoveInPriorityOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 5.0);
+        heap.insertOrDecrease(1, 1.0);
+        heap.insertOrDecrease(2, 3.0);
+        assertEquals(3, heap.size());
+        assertEquals(1.0, heap.peekPriority(), EPSILON);
+        assertEquals(1, heap.removeMin());
+        assertEquals(2, heap.removeMin());
+        assertEquals(0, heap.removeMin());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 5.0);
+        heap.insertOrDecrease(1, 3.0);
+        heap.insertOrDecrease(0, 1.0);  // decreased
+        heap.insertOrDecrease(1, 4.0);  // larger priority is ignored
+        assertEquals(2, heap.size());
+        assertEquals(0, heap.removeMin());
+        assertEquals(3.0, heap.peekPriority(), EPSILON);
+        assertEquals(1, heap.removeMin());
+    }
+
+    @Test
+    public void testGrowsPastCapacity() {
+        IndexedMinHeap heap = new IndexedMinHeap(1);
+        for (int i = 99; i >= 0; i--) {
+            heap.insertOrDecrease(i, i);
+        }
+        assertTrue(heap.contains(99));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, heap.removeMin());
+            assertFalse(heap.contains(i));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(2, 1.0);
+        heap.insertOrDecrease(3, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        heap.insertOrDecrease(3, 7.0);
+        assertEquals(7.0, heap.peekPriority(), EPSILON);
+    }
+}
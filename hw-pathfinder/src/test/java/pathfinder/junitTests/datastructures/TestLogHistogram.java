@@ -0,0 +1,67 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.LogHistogram;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class TestLogHistogram {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    @Test
+    public void testEmptyHistogram() {
+        LogHistogram histogram = new LogHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMean(), EPSILON);
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    public void testCountMeanMax() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(0);
+        histogram.record(10);
+        histogram.record(20);
+        assertEquals(3, histogram.getCount());
+        assertEquals(10.0, histogram.getMean(), EPSILON);
+        assertEquals(20, histogram.getMax());
+    }
+
+    @Test
+    public void testPercentilesWithinFactorOfTwo() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        long median = histogram.getPercentile(0.5);
+        assertTrue(median >= 500 && median < 1000);
+        assertEquals(1000, histogram.getPercentile(1.0));
+        assertEquals(1, histogram.getPercentile(0.0));
+    }
+
+    @Test
+    public void testConcurrentRecords() {
+        LogHistogram histogram = new LogHistogram();
+        IntStream.range(0, 10000).parallel().forEach(histogram::record);
+        assertEquals(10000, histogram.getCount());
+        assertEquals(9999, histogram.getMax());
+    }
+
+    @Test
+    public void testReset() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(5);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPercentile() {
+        new LogHistogram().getPercentile(1.5);
+    }
+}
@@ -106,4 +106,58 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testExtendSharesButDoesNotChangePrefix() {
+        Path<Point> base = new Path<>(new Point(0, 0)).extend(new Point(1, 0), 1.0D);
+        Path<Point> up = base.extend(new Point(1, 1), 1.0D);
+        Path<Point> right = base.extend(new Point(2, 0), 1.0D);
+        assertEquals(1, base.size());
+        assertEquals(2, up.size());
+        assertEquals(2, right.size());
+        assertEquals(new Point(1, 0), base.getEnd());
+        assertEquals(new Point(1, 1), up.getEnd());
+        assertEquals(new Point(2, 0), right.getEnd());
+        assertNotEquals(up, right);
+    }
+
+    @Test
+    public void testEqualPathsBuiltSeparately() {
+        Path<Point> a = new Path<>(new Point(0, 0));
+        Path<Point> b = new Path<>(new Point(0, 0));
+        for (int i = 1; i <= 100; i++) {
+            a = a.extend(new Point(i, i), i);
+            b = b.extend(new Point(i, i), i);
+        }
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, b.extend(new Point(0, 0), 1.0D));
+    }
+
+    @Test(timeout = 10000)
+    public void testLongPathIsLinear() {
+        Path<Point> path = new Path<>(new Point(0, 0));
+        for (int i = 1; i <= 200000; i++) {
+            path = path.extend(new Point(i, 0), 1.0D);
+        }
+        assertEquals(200000, path.size());
+        assertEquals(200000.0D, path.getCost(), EPSILON);
+
+        int count = 0;
+        double x = 0;
+        for (Path<Point>.Segment<Point> segment : path) {
+            assertEquals(x, segment.getStart().getX(), EPSILON);
+            x = segment.getEnd().getX();
+            count++;
+        }
+        assertEquals(200000, count);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIteratorRemove() {
+        Path<Point> path = new Path<>(new Point(0, 0)).extend(new Point(1, 0), 1.0D);
+        Iterator<Path<Point>.Segment<Point>> iterator = path.iterator();
+        iterator.next();
+        iterator.remove();
+    }
 }
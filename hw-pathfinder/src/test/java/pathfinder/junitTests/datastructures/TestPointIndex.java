@@ -0,0 +1,84 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointIndex;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestPointIndex {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static double distance(Point p, double x, double y) {
+        return Math.hypot(p.getX() - x, p.getY() - y);
+    }
+
+    private static List<Point> randomPoints(Random random, int n) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            // a coarse grid so that many points tie on a coordinate
+            points.add(new Point(random.nextInt(50), random.nextInt(50)));
+        }
+        return points;
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        PointIndex index = new PointIndex(List.of());
+        assertEquals(0, index.size());
+        assertNull(index.nearest(1, 2));
+        assertEquals(List.of(), index.nearest(1, 2, 3));
+    }
+
+    @Test
+    public void testSinglePoint() {
+        Point p = new Point(3, 4);
+        PointIndex index = new PointIndex(List.of(p));
+        assertEquals(p, index.nearest(100, -100));
+        assertEquals(List.of(p), index.nearest(0, 0, 5));
+    }
+
+    @Test
+    public void testNearestMatchesBruteForce() {
+        Random random = new Random(331);
+        List<Point> points = randomPoints(random, 500);
+        PointIndex index = new PointIndex(points);
+        assertEquals(500, index.size());
+        for (int i = 0; i < 200; i++) {
+            double x = random.nextDouble() * 60 - 5;
+            double y = random.nextDouble() * 60 - 5;
+            double best = Double.POSITIVE_INFINITY;
+            for (Point p : points) {
+                best = Math.min(best, distance(p, x, y));
+            }
+            assertEquals(best, distance(index.nearest(x, y), x, y), EPSILON);
+        }
+    }
+
+    @Test
+    public void testKNearestMatchesBruteForce() {
+        Random random = new Random(332);
+        List<Point> points = randomPoints(random, 300);
+        PointIndex index = new PointIndex(points);
+        for (int k : new int[] {0, 1, 7, 300, 400}) {
+            double x = random.nextDouble() * 50;
+            double y = random.nextDouble() * 50;
+            List<Point> sorted = new ArrayList<>(points);
+            sorted.sort(Comparator.comparingDouble(p -> distance(p, x, y)));
+
+            List<Point> found = index.nearest(x, y, k);
+            assertEquals(Math.min(k, points.size()), found.size());
+            for (int i = 0; i < found.size(); i++) {
+                assertEquals(distance(sorted.get(i), x, y), distance(found.get(i), x, y), EPSILON);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        new PointIndex(List.of(new Point(0, 0))).nearest(0, 0, -1);
+    }
+}
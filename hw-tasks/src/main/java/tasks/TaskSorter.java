@@ -81,11 +81,7 @@ public class TaskSorter {
     public Set<Dependency> getOutgoingDependencies(Task t) {
         Set<Dependency> dependencies = new HashSet<>();
         try {
-            Set<Graph.Edge<Task, Dependency>> edges = todos.listChildren(t);
-
-            for (Graph.Edge<Task, Dependency> edge : edges) {
-                dependencies.add(edge.getLabel());
-            }
+            todos.forEachChild(t, edge -> dependencies.add(edge.getLabel()));
         } catch(RuntimeException e) {
             e.printStackTrace();
         }